@@ -0,0 +1,212 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * BookingDedupCache.java
+ *
+ * Remembers the outcome of recent booking requests by their client request ID
+ * (the booking reference), so a retried request gets the original answer (the
+ * Reservation, or null if it was rejected) instead of being booked again.
+ * A retry is answered from the cache without touching the property's calendar:
+ * get() only looks the outcome up and never books.
+ * Concurrent duplicates wait for the first attempt and share its outcome.
+ *
+ * Each entry also keeps the stay it was made for, and reusing a request ID
+ * for a different property, guest or range is rejected rather than answered
+ * with another booking's reservation.
+ *
+ * The cache is bounded: entries older than the TTL are ignored and removed,
+ * and once more than maxEntries are stored the oldest ones are evicted first.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class BookingDedupCache {
+    private ConcurrentHashMap<String, Entry> entries;
+    private ConcurrentLinkedQueue<Entry> insertionOrder;
+    private int maxEntries;
+    private long ttlMillis;
+
+    /**
+     * Creates a dedup cache.
+     * @param maxEntries maximum number of remembered requests
+     * @param ttlMillis  how long an outcome is remembered
+     */
+    public BookingDedupCache(int maxEntries, long ttlMillis) {
+        this.entries = new ConcurrentHashMap<>();
+        this.insertionOrder = new ConcurrentLinkedQueue<>();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of remembered requests.
+     * @return entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks if a request ID already has a remembered (or pending) booking.
+     * @param requestId client request ID
+     * @return true if a booking with this ID would be a retry
+     */
+    public boolean contains(String requestId) {
+        Entry entry = entries.get(requestId);
+        return entry != null && System.currentTimeMillis() - entry.createdAt <= ttlMillis;
+    }
+
+    /**
+     * Gets the outcome recorded for a request ID without booking anything.
+     * If the first attempt is still running, waits for it to finish.
+     * @param requestId client request ID
+     * @param property property being booked
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the reservation, or null if the booking was rejected
+     * @throws IllegalArgumentException if the ID was already used for a different stay
+     * @throws NoSuchElementException if no outcome is remembered for the ID (it is new,
+     *         has expired, or its first attempt failed)
+     */
+    public Reservation get(String requestId, Property property, String guestName, int checkIn, int checkOut) {
+        Entry entry = entries.get(requestId);
+        if (entry != null && System.currentTimeMillis() - entry.createdAt <= ttlMillis) {
+            if (!entry.matches(property, guestName, checkIn, checkOut)) {
+                throw new IllegalArgumentException("Booking reference '" + requestId
+                        + "' was already used for a different stay.");
+            }
+            if (entry.await()) {
+                return entry.reservation;
+            }
+        }
+        throw new NoSuchElementException("No booking remembered for reference '" + requestId + "'.");
+    }
+
+    // -------------------------------------------------------
+    // Core Methods
+    // -------------------------------------------------------
+
+    /**
+     * Returns the outcome already recorded for the request ID, or runs the booking
+     * and records its outcome if the ID is new (or its entry has expired).
+     * If the booking throws, nothing is recorded, so the client can retry.
+     * @param requestId client request ID
+     * @param property property being booked
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @param booking makes the booking; only called for new request IDs
+     * @return the reservation, or null if the booking was rejected
+     * @throws IllegalArgumentException if the ID was already used for a different stay
+     */
+    public Reservation getOrBook(String requestId, Property property, String guestName, int checkIn, int checkOut,
+                                 Supplier<Reservation> booking) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry created = new Entry(requestId, property, guestName, checkIn, checkOut, now);
+            Entry entry = entries.compute(requestId, (key, current) ->
+                    current != null && now - current.createdAt <= ttlMillis ? current : created);
+
+            if (entry != created) {
+                if (!entry.matches(property, guestName, checkIn, checkOut)) {
+                    throw new IllegalArgumentException("Booking reference '" + requestId
+                            + "' was already used for a different stay.");
+                }
+                if (entry.await()) {
+                    return entry.reservation;
+                }
+                continue;   // the first attempt failed and was dropped, so try again
+            }
+
+            insertionOrder.offer(created);
+            evict(now);
+            Reservation reservation;
+            try {
+                reservation = booking.get();
+            } catch (RuntimeException | Error e) {
+                entries.remove(requestId, created);
+                created.finish(null, false);
+                throw e;
+            }
+            created.finish(reservation, true);
+            return reservation;
+        }
+    }
+
+    /**
+     * Drops expired entries and the oldest entries beyond the size limit.
+     */
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (entries.size() > maxEntries || now - oldest.createdAt > ttlMillis)) {
+            if (insertionOrder.remove(oldest)) {
+                entries.remove(oldest.requestId, oldest);
+            }
+        }
+    }
+
+    /**
+     * A remembered request and the stay it was made for.
+     */
+    private static class Entry {
+        private String requestId;
+        private Property property;
+        private String guestName;
+        private int checkIn;
+        private int checkOut;
+        private long createdAt;
+        private Reservation reservation;
+        private boolean done;
+        private boolean recorded;
+
+        Entry(String requestId, Property property, String guestName, int checkIn, int checkOut, long createdAt) {
+            this.requestId = requestId;
+            this.property = property;
+            this.guestName = guestName;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.createdAt = createdAt;
+        }
+
+        boolean matches(Property property, String guestName, int checkIn, int checkOut) {
+            return this.property == property && this.guestName.equals(guestName)
+                    && this.checkIn == checkIn && this.checkOut == checkOut;
+        }
+
+        synchronized void finish(Reservation reservation, boolean recorded) {
+            this.reservation = reservation;
+            this.recorded = recorded;
+            this.done = true;
+            notifyAll();
+        }
+
+        /**
+         * Waits for the first attempt to finish.
+         * @return true if its outcome was recorded
+         */
+        synchronized boolean await() {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return recorded;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * CalendarHistory.java
+ *
+ * Keeps every past version of a property's calendar (listed days, nightly prices
+ * and booked flags) so questions like "what did this calendar look like last Tuesday"
+ * can be answered.
+ *
+ * Each version is the root of an immutable binary tree over days 1-30. A change copies
+ * only the path from the root to the changed days and shares everything else with the
+ * previous version, so every change costs O(log n) extra memory and old versions are
+ * never copied. Versions never change once published, so reads of any version need
+ * no locks.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class CalendarHistory {
+    /** Tree depth: 2^5 = 32 leaves cover days 1-30. */
+    static final int DEPTH = 5;
+
+    private volatile CalendarSnapshot[] versions;
+    private volatile int count;
+
+    /**
+     * Starts the history with the property's current calendar as version 1.
+     * @param property the property whose calendar is tracked
+     * @param startMillis time from which that calendar has been in effect
+     */
+    public CalendarHistory(Property property, long startMillis) {
+        versions = new CalendarSnapshot[4];
+        versions[0] = new CalendarSnapshot(applyDays(null, property, 1, 31), startMillis, 1);
+        count = 1;
+    }
+
+    // -------------------------------------------------------
+    // Reading (lock-free)
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of recorded versions.
+     * @return version count
+     */
+    public int getVersionCount() {
+        return count;
+    }
+
+    /**
+     * Gets a version by number.
+     * @param versionNumber version number (1 = oldest)
+     * @return the snapshot, or null if there is no such version
+     */
+    public CalendarSnapshot getVersion(int versionNumber) {
+        int n = count;                      // read count before the array
+        CalendarSnapshot[] all = versions;
+        if (versionNumber < 1 || versionNumber > n) {
+            return null;
+        }
+        return all[versionNumber - 1];
+    }
+
+    /**
+     * Gets the latest version.
+     * @return the current calendar snapshot
+     */
+    public CalendarSnapshot latest() {
+        return getVersion(count);
+    }
+
+    /**
+     * Gets the calendar as it was at a point in time.
+     * @param timeMillis time in milliseconds since the epoch
+     * @return the snapshot in effect at that time, or null if it is before the history starts
+     */
+    public CalendarSnapshot at(long timeMillis) {
+        int n = count;
+        CalendarSnapshot[] all = versions;
+        int low = 0;
+        int high = n - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (all[mid].getTimeMillis() <= timeMillis) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found < 0 ? null : all[found];
+    }
+
+    // -------------------------------------------------------
+    // Writing (called by Property while it holds its lock)
+    // -------------------------------------------------------
+
+    /**
+     * Records a new version where the given days have changed.
+     * @param property the property, read for the current state of the days
+     * @param from first changed day
+     * @param to day after the last changed day
+     */
+    synchronized void record(Property property, int from, int to) {
+        CalendarSnapshot last = versions[count - 1];
+        Node root = applyDays(last.getRoot(), property, from, to);
+        append(new CalendarSnapshot(root, Math.max(System.currentTimeMillis(), last.getTimeMillis()), count + 1));
+    }
+
+    private void append(CalendarSnapshot snapshot) {
+        CalendarSnapshot[] all = versions;
+        if (count == all.length) {
+            // copies only the version pointers, never the calendars
+            CalendarSnapshot[] bigger = new CalendarSnapshot[all.length * 2];
+            System.arraycopy(all, 0, bigger, 0, count);
+            versions = bigger;
+            all = bigger;
+        }
+        all[count] = snapshot;
+        count = count + 1;    // publish after the slot is written
+    }
+
+    private static Node applyDays(Node root, Property property, int from, int to) {
+        for (int day = Math.max(1, from); day < to && day <= 30; day++) {
+            Date date = property.findDate(day);
+            Node leaf = date == null ? null : Node.leaf(date.getPricePerNight(), date.isBooked());
+            root = set(root, day, DEPTH - 1, leaf);
+        }
+        return root;
+    }
+
+    /**
+     * Returns a copy of the path to the day with the new leaf; other branches are shared.
+     */
+    private static Node set(Node node, int day, int level, Node leaf) {
+        if (level < 0) {
+            return leaf;
+        }
+        Node left = node == null ? null : node.left;
+        Node right = node == null ? null : node.right;
+        if (((day >>> level) & 1) == 0) {
+            left = set(left, day, level - 1, leaf);
+        } else {
+            right = set(right, day, level - 1, leaf);
+        }
+        return left == null && right == null ? null : Node.branch(left, right);
+    }
+
+    /**
+     * Immutable tree node: either a branch or a leaf holding one listed day.
+     */
+    static final class Node {
+        final Node left;
+        final Node right;
+        final long price;
+        final boolean booked;
+
+        private Node(Node left, Node right, long price, boolean booked) {
+            this.left = left;
+            this.right = right;
+            this.price = price;
+            this.booked = booked;
+        }
+
+        static Node branch(Node left, Node right) {
+            return new Node(left, right, 0, false);
+        }
+
+        static Node leaf(long price, boolean booked) {
+            return new Node(null, null, price, booked);
+        }
+    }
+}
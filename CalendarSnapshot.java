@@ -0,0 +1,136 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CalendarSnapshot.java
+ *
+ * One read-only version of a property's calendar, taken from CalendarHistory.
+ * Snapshots never change, so they can be read from any thread without locking.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class CalendarSnapshot {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CalendarHistory.Node root;
+    private final long timeMillis;
+    private final int versionNumber;
+
+    /**
+     * Constructs a snapshot.
+     * @param root           Root of the calendar tree (null = no listed days)
+     * @param timeMillis     When this version became current
+     * @param versionNumber  Version number (1 = oldest)
+     */
+    CalendarSnapshot(CalendarHistory.Node root, long timeMillis, int versionNumber) {
+        this.root = root;
+        this.timeMillis = timeMillis;
+        this.versionNumber = versionNumber;
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets when this version became current.
+     * @return time in milliseconds since the epoch
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Gets the version number.
+     * @return version number (1 = oldest)
+     */
+    public int getVersionNumber() {
+        return versionNumber;
+    }
+
+    /**
+     * Checks if a day was listed in this version.
+     * @param dayNumber the day number
+     * @return true if listed
+     */
+    public boolean isListed(int dayNumber) {
+        return find(dayNumber) != null;
+    }
+
+    /**
+     * Checks if a day was booked in this version.
+     * @param dayNumber the day number
+     * @return true if listed and booked
+     */
+    public boolean isBooked(int dayNumber) {
+        CalendarHistory.Node leaf = find(dayNumber);
+        return leaf != null && leaf.booked;
+    }
+
+    /**
+     * Gets the price of a day in this version.
+     * @param dayNumber the day number
+     * @return price per night in centavos, or -1 if the day was not listed
+     */
+    public long getPricePerNight(int dayNumber) {
+        CalendarHistory.Node leaf = find(dayNumber);
+        return leaf == null ? -1 : leaf.price;
+    }
+
+    CalendarHistory.Node getRoot() {
+        return root;
+    }
+
+    private CalendarHistory.Node find(int dayNumber) {
+        if (dayNumber < 1 || dayNumber > 30) {
+            return null;
+        }
+        CalendarHistory.Node node = root;
+        for (int level = CalendarHistory.DEPTH - 1; level >= 0 && node != null; level--) {
+            node = ((dayNumber >>> level) & 1) == 0 ? node.left : node.right;
+        }
+        return node;
+    }
+
+    // -------------------------------------------------------
+    // Display
+    // -------------------------------------------------------
+
+    /**
+     * Formats the version time for display.
+     * @return local date and time
+     */
+    public String getTimeText() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()).format(TIME_FORMAT);
+    }
+
+    /**
+     * Displays this version as a calendar grid with nightly prices.
+     */
+    public void displayCalendar() {
+        System.out.println("\n=== CALENDAR VERSION " + versionNumber + " (" + getTimeText() + ") ===");
+        System.out.println("+-----------------------------+");
+        System.out.println("| SUN MON TUE WED THU FRI SAT |");
+        System.out.println("+-----------------------------+");
+        for (int day = 1; day <= 30; day++) {
+            String status = !isListed(day) ? "-" : isBooked(day) ? "B" : "A";
+            System.out.printf(" %2d%s ", day, status);
+            if (day % 7 == 0) {
+                System.out.println();
+            }
+        }
+        System.out.println("\n+-----------------------------+");
+
+        System.out.println("\nPRICES:");
+        for (int day = 1; day <= 30; day++) {
+            long price = getPricePerNight(day);
+            if (price >= 0) {
+                System.out.printf("   Day %2d: PHP %8s%n", day, Money.format(price));
+            }
+        }
+    }
+}
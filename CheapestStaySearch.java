@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CheapestStaySearch.java
+ *
+ * Finds the k properties with the lowest total price for a stay.
+ * The portfolio is split into chunks searched in parallel on the fork-join pool.
+ * Each chunk keeps only its best k candidates in a bounded max-heap stored in two
+ * plain arrays (totals and properties), so candidates cost no allocation and nothing
+ * is fully sorted; the chunk heaps are merged on the way back up and only the final
+ * k results are sorted.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class CheapestStaySearch {
+    private static final int CHUNK_SIZE = 4096;
+
+    private CheapestStaySearch() {
+    }
+
+    /**
+     * Finds the cheapest available properties for a stay.
+     * @param properties the portfolio
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @param k maximum number of results
+     * @return up to k results, cheapest first (ties broken by property id)
+     */
+    public static ArrayList<Result> search(List<Property> properties, int checkIn, int checkOut, int k) {
+        ArrayList<Result> results = new ArrayList<>();
+        if (k <= 0 || properties.isEmpty()) {
+            return results;
+        }
+        Heap best = ForkJoinPool.commonPool().invoke(new SearchTask(properties, 0, properties.size(), checkIn, checkOut, k));
+
+        // pop the max repeatedly and fill from the back: cheapest ends up first
+        int n = best.size;
+        Result[] sorted = new Result[n];
+        for (int i = n - 1; i >= 0; i--) {
+            sorted[i] = new Result(best.properties[0], best.totals[0]);
+            best.removeTop();
+        }
+        for (Result r : sorted) {
+            results.add(r);
+        }
+        return results;
+    }
+
+    /**
+     * One search result: a property and its total price for the stay.
+     */
+    public static class Result {
+        private Property property;
+        private long totalPrice;
+
+        Result(Property property, long totalPrice) {
+            this.property = property;
+            this.totalPrice = totalPrice;
+        }
+
+        /**
+         * Gets the property.
+         * @return property
+         */
+        public Property getProperty() {
+            return property;
+        }
+
+        /**
+         * Gets the total price of the stay.
+         * @return total price in centavos
+         */
+        public long getTotalPrice() {
+            return totalPrice;
+        }
+    }
+
+    /**
+     * Fork-join task searching properties[from, to).
+     */
+    private static class SearchTask extends RecursiveTask<Heap> {
+        private static final long serialVersionUID = 1L;
+        private List<Property> properties;
+        private int from;
+        private int to;
+        private int checkIn;
+        private int checkOut;
+        private int k;
+
+        SearchTask(List<Property> properties, int from, int to, int checkIn, int checkOut, int k) {
+            this.properties = properties;
+            this.from = from;
+            this.to = to;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.k = k;
+        }
+
+        @Override
+        protected Heap compute() {
+            if (to - from <= CHUNK_SIZE) {
+                Heap heap = new Heap(k);
+                for (int i = from; i < to; i++) {
+                    Property prop = properties.get(i);
+                    long total = prop.stayTotal(checkIn, checkOut);
+                    if (total >= 0) {
+                        heap.offer(prop, total);
+                    }
+                }
+                return heap;
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask left = new SearchTask(properties, from, mid, checkIn, checkOut, k);
+            SearchTask right = new SearchTask(properties, mid, to, checkIn, checkOut, k);
+            left.fork();
+            Heap rightHeap = right.compute();
+            Heap leftHeap = left.join();
+            for (int i = 0; i < rightHeap.size; i++) {
+                leftHeap.offer(rightHeap.properties[i], rightHeap.totals[i]);
+            }
+            return leftHeap;
+        }
+    }
+
+    /**
+     * Bounded max-heap of the k cheapest candidates seen so far.
+     * The most expensive kept candidate is at index 0, so a new candidate
+     * only needs to beat that one to get in.
+     */
+    private static class Heap {
+        private long[] totals;
+        private Property[] properties;
+        private int size;
+
+        Heap(int capacity) {
+            totals = new long[capacity];
+            properties = new Property[capacity];
+        }
+
+        void offer(Property prop, long total) {
+            if (size < totals.length) {
+                totals[size] = total;
+                properties[size] = prop;
+                siftUp(size++);
+            } else if (isBefore(total, prop, totals[0], properties[0])) {
+                totals[0] = total;
+                properties[0] = prop;
+                siftDown(0);
+            }
+        }
+
+        void removeTop() {
+            size--;
+            totals[0] = totals[size];
+            properties[0] = properties[size];
+            properties[size] = null;
+            if (size > 0) {
+                siftDown(0);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!isBefore(totals[parent], properties[parent], totals[i], properties[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && isBefore(totals[largest], properties[largest], totals[left], properties[left])) {
+                    largest = left;
+                }
+                if (right < size && isBefore(totals[largest], properties[largest], totals[right], properties[right])) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long t = totals[a];
+            totals[a] = totals[b];
+            totals[b] = t;
+            Property p = properties[a];
+            properties[a] = properties[b];
+            properties[b] = p;
+        }
+
+        /**
+         * Checks if candidate a ranks before (is cheaper than) candidate b.
+         */
+        private static boolean isBefore(long totalA, Property a, long totalB, Property b) {
+            return totalA < totalB || (totalA == totalB && a.getId() < b.getId());
+        }
+    }
+}
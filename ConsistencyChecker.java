@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ConsistencyChecker.java
+ *
+ * Verifies that property calendars and reservations agree:
+ *  - every booked night is covered by exactly one reservation
+ *  - every night of a reservation exists and is booked
+ *  - every reservation's breakdown matches the nightly prices and adds up to its total
+ *
+ * The portfolio is split into chunks checked in parallel on the fork-join pool.
+ * The checker remembers the version of each property that passed, so later runs only
+ * re-check properties that changed since then (or that had problems), which keeps
+ * repeated runs cheap enough to do continuously.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class ConsistencyChecker {
+    private static final int CHUNK_SIZE = 256;
+
+    private ConcurrentHashMap<Long, Long> passedVersions;   // property id -> version that passed
+    private int lastCheckedCount;
+
+    /**
+     * Creates a checker that has not checked anything yet.
+     */
+    public ConsistencyChecker() {
+        passedVersions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets how many properties were actually checked in the last run
+     * (the rest were unchanged since they last passed).
+     * @return number of properties checked
+     */
+    public int getLastCheckedCount() {
+        return lastCheckedCount;
+    }
+
+    /**
+     * Checks every property changed since it last passed.
+     * @param properties the portfolio
+     * @return problems found (empty if everything is consistent)
+     */
+    public ArrayList<String> check(List<Property> properties) {
+        CheckTask task = new CheckTask(properties, 0, properties.size());
+        ArrayList<String> problems = ForkJoinPool.commonPool().invoke(task);
+        lastCheckedCount = task.checked;
+
+        // forget properties that were removed
+        if (passedVersions.size() > properties.size()) {
+            HashSet<Long> present = new HashSet<>();
+            for (Property prop : properties) {
+                present.add(prop.getId());
+            }
+            passedVersions.keySet().retainAll(present);
+        }
+        return problems;
+    }
+
+    /**
+     * Checks one property if it changed since it last passed.
+     * @param prop property to check
+     * @param problems where problems are added
+     * @return true if the property was checked, false if it was skipped
+     */
+    private boolean checkIfChanged(Property prop, ArrayList<String> problems) {
+        Long passed = passedVersions.get(prop.getId());
+        if (passed != null && passed == prop.getVersion()) {
+            return false;
+        }
+        synchronized (prop) {
+            int before = problems.size();
+            checkProperty(prop, problems);
+            if (problems.size() == before) {
+                passedVersions.put(prop.getId(), prop.getVersion());
+            } else {
+                passedVersions.remove(prop.getId()); // keep reporting until fixed
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares one property's calendar against its reservations.
+     */
+    private static void checkProperty(Property prop, ArrayList<String> problems) {
+        String name = prop.getName();
+        int[] coverage = new int[31];
+
+        for (Reservation r : prop.getReservations()) {
+            String who = "reservation of '" + r.getGuestName() + "' (Day " + r.getCheckIn() + " to " + r.getCheckOut() + ")";
+            long[] breakdown = r.getBreakdown();
+            if (r.getCheckIn() < 1 || r.getCheckOut() > 30 || r.getCheckIn() >= r.getCheckOut()) {
+                problems.add(name + ": " + who + " has an invalid date range.");
+                continue;
+            }
+            if (breakdown.length != r.getCheckOut() - r.getCheckIn()) {
+                problems.add(name + ": " + who + " has " + breakdown.length + " nightly prices for "
+                        + (r.getCheckOut() - r.getCheckIn()) + " nights.");
+            }
+
+            long sum = 0;
+            for (int day = r.getCheckIn(); day < r.getCheckOut(); day++) {
+                coverage[day]++;
+                Date date = prop.findDate(day);
+                int night = day - r.getCheckIn();
+                if (date == null) {
+                    problems.add(name + ": " + who + " includes Day " + day + ", which is not listed.");
+                } else {
+                    if (!date.isBooked()) {
+                        problems.add(name + ": " + who + " includes Day " + day + ", which is not marked booked.");
+                    }
+                    if (night < breakdown.length && breakdown[night] != date.getPricePerNight()) {
+                        problems.add(name + ": " + who + " charges PHP " + Money.format(breakdown[night])
+                                + " for Day " + day + " but the night costs PHP " + Money.format(date.getPricePerNight()) + ".");
+                    }
+                }
+                if (night < breakdown.length) {
+                    sum += breakdown[night];
+                }
+            }
+            if (sum != r.getTotalPrice()) {
+                problems.add(name + ": " + who + " total PHP " + Money.format(r.getTotalPrice())
+                        + " does not match its nights (PHP " + Money.format(sum) + ").");
+            }
+        }
+
+        for (int day = 1; day <= 30; day++) {
+            Date date = prop.findDate(day);
+            if (date == null) {
+                continue;
+            }
+            if (date.isBooked() && coverage[day] == 0) {
+                problems.add(name + ": Day " + day + " is booked but no reservation covers it.");
+            }
+            if (coverage[day] > 1) {
+                problems.add(name + ": Day " + day + " is covered by " + coverage[day] + " reservations.");
+            }
+        }
+    }
+
+    /**
+     * Fork-join task checking properties[from, to).
+     */
+    private class CheckTask extends RecursiveTask<ArrayList<String>> {
+        private static final long serialVersionUID = 1L;
+        private List<Property> properties;
+        private int from;
+        private int to;
+        private int checked;
+
+        CheckTask(List<Property> properties, int from, int to) {
+            this.properties = properties;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ArrayList<String> compute() {
+            if (to - from <= CHUNK_SIZE) {
+                ArrayList<String> problems = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (checkIfChanged(properties.get(i), problems)) {
+                        checked++;
+                    }
+                }
+                return problems;
+            }
+            int mid = (from + to) >>> 1;
+            CheckTask left = new CheckTask(properties, from, mid);
+            CheckTask right = new CheckTask(properties, mid, to);
+            left.fork();
+            ArrayList<String> problems = right.compute();
+            ArrayList<String> leftProblems = left.join();
+            leftProblems.addAll(problems);
+            checked = left.checked + right.checked;
+            return leftProblems;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * ConsoleInput.java
+ *
+ * Line-based console reader shared by the whole program, replacing separate Scanners.
+ * Input is read in large blocks into one buffer, lines are split by hand, and numbers
+ * are parsed straight from the bytes without exceptions or temporary Strings,
+ * so long scripted sessions piped into the program run at I/O speed and no input
+ * is lost between competing buffers.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class ConsoleInput {
+    /** Returned by nextInt when the line is not a whole number. */
+    public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private static ConsoleInput shared;
+
+    private InputStream in;
+    private byte[] buffer;
+    private int bufferLength;
+    private int bufferPos;
+    private byte[] line;      // current line, reused for every line
+    private int lineLength;
+
+    /**
+     * Creates a reader over any input stream.
+     * @param in source of input lines
+     */
+    public ConsoleInput(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[64 * 1024];
+        this.line = new byte[256];
+    }
+
+    /**
+     * Gets the reader for System.in shared by all input paths.
+     * @return shared console reader
+     */
+    public static synchronized ConsoleInput shared() {
+        if (shared == null) {
+            shared = new ConsoleInput(System.in);
+        }
+        return shared;
+    }
+
+    // -------------------------------------------------------
+    // Reading
+    // -------------------------------------------------------
+
+    /**
+     * Reads the next line (without the line break).
+     * @return the line
+     * @throws NoSuchElementException if there is no more input
+     */
+    public String nextLine() {
+        readLine();
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next line as a whole number, ignoring surrounding spaces.
+     * @return the number, or NOT_A_NUMBER if the line is not a valid int
+     * @throws NoSuchElementException if there is no more input
+     */
+    public long nextInt() {
+        readLine();
+        int pos = 0;
+        int end = lineLength;
+        while (pos < end && isSpace(line[pos])) {
+            pos++;
+        }
+        while (end > pos && isSpace(line[end - 1])) {
+            end--;
+        }
+
+        boolean negative = false;
+        if (pos < end && (line[pos] == '-' || line[pos] == '+')) {
+            negative = line[pos] == '-';
+            pos++;
+        }
+        if (pos == end) {
+            return NOT_A_NUMBER;
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = line[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_NUMBER;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return NOT_A_NUMBER;
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            return NOT_A_NUMBER;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the next line from the buffer into the line array.
+     */
+    private void readLine() {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (bufferPos == bufferLength && !fill()) {
+                if (!readAny) {
+                    throw new NoSuchElementException("No more input.");
+                }
+                break;
+            }
+            readAny = true;
+            byte b = buffer[bufferPos++];
+            if (b == '\n') {
+                break;
+            }
+            if (lineLength == line.length) {
+                byte[] bigger = new byte[line.length * 2];
+                System.arraycopy(line, 0, bigger, 0, lineLength);
+                line = bigger;
+            }
+            line[lineLength++] = b;
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+    }
+
+    /**
+     * Refills the buffer from the stream.
+     * @return false at end of input
+     */
+    private boolean fill() {
+        try {
+            bufferLength = in.read(buffer, 0, buffer.length);
+        } catch (IOException e) {
+            bufferLength = -1;
+        }
+        bufferPos = 0;
+        if (bufferLength <= 0) {
+            bufferLength = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+
+/**
+ * DataExporter.java
+ *
+ * Streams every reservation and every property calendar to a Writer,
+ * either as CSV or as JSON lines. Records are written field by field straight
+ * into the output, so no per-property lists or strings are built and memory
+ * stays flat no matter how many properties are exported.
+ *
+ * CSV records:
+ *  - R,property,guest,checkIn,checkOut,totalPrice,price1;price2;...
+ *  - C,property,day,pricePerNight,status   (status A = available, B = booked)
+ *
+ * JSON lines use the same fields with a "type" of "reservation" or "calendar".
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class DataExporter {
+    private Writer out;
+    private boolean json;
+    private char[] digits;   // scratch space for number formatting
+    private long recordCount;
+
+    /**
+     * Creates an exporter writing to the given output.
+     * @param out  destination (should be buffered)
+     * @param json true for JSON lines, false for CSV
+     */
+    public DataExporter(Writer out, boolean json) {
+        this.out = out;
+        this.json = json;
+        this.digits = new char[Money.MAX_CHARS];
+    }
+
+    /**
+     * Gets the number of records written so far.
+     * @return record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    // -------------------------------------------------------
+    // Export
+    // -------------------------------------------------------
+
+    /**
+     * Writes all reservations and calendars of the given properties.
+     * The writer is flushed but not closed.
+     * @param properties properties to export
+     * @throws IOException if writing fails
+     */
+    public void exportAll(ArrayList<Property> properties) throws IOException {
+        if (!json) {
+            out.write("# R,property,guest,checkIn,checkOut,totalPrice,nightlyPrices\n");
+            out.write("# C,property,day,pricePerNight,status\n");
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            Property prop = properties.get(i);
+            ArrayList<Reservation> reservations = prop.getReservations();
+            for (int r = 0; r < reservations.size(); r++) {
+                writeReservation(prop, reservations.get(r));
+            }
+            for (int day = 1; day <= 30; day++) {
+                Date date = prop.findDate(day);
+                if (date != null) {
+                    writeCalendarDay(prop, date);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes one reservation record.
+     */
+    private void writeReservation(Property prop, Reservation reservation) throws IOException {
+        long[] breakdown = reservation.getBreakdown();
+        if (json) {
+            out.write("{\"type\":\"reservation\",\"property\":");
+            writeJsonString(prop.getName());
+            out.write(",\"guest\":");
+            writeJsonString(reservation.getGuestName());
+            out.write(",\"checkIn\":");
+            writeLong(reservation.getCheckIn());
+            out.write(",\"checkOut\":");
+            writeLong(reservation.getCheckOut());
+            out.write(",\"totalPrice\":");
+            writePrice(reservation.getTotalPrice());
+            out.write(",\"breakdown\":[");
+            for (int i = 0; i < breakdown.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writePrice(breakdown[i]);
+            }
+            out.write("]}\n");
+        } else {
+            out.write("R,");
+            writeCsvField(prop.getName());
+            out.write(',');
+            writeCsvField(reservation.getGuestName());
+            out.write(',');
+            writeLong(reservation.getCheckIn());
+            out.write(',');
+            writeLong(reservation.getCheckOut());
+            out.write(',');
+            writePrice(reservation.getTotalPrice());
+            out.write(',');
+            for (int i = 0; i < breakdown.length; i++) {
+                if (i > 0) {
+                    out.write(';');
+                }
+                writePrice(breakdown[i]);
+            }
+            out.write('\n');
+        }
+        recordCount++;
+    }
+
+    /**
+     * Writes one calendar day record.
+     */
+    private void writeCalendarDay(Property prop, Date date) throws IOException {
+        if (json) {
+            out.write("{\"type\":\"calendar\",\"property\":");
+            writeJsonString(prop.getName());
+            out.write(",\"day\":");
+            writeLong(date.getDayNumber());
+            out.write(",\"pricePerNight\":");
+            writePrice(date.getPricePerNight());
+            out.write(date.isBooked() ? ",\"booked\":true}\n" : ",\"booked\":false}\n");
+        } else {
+            out.write("C,");
+            writeCsvField(prop.getName());
+            out.write(',');
+            writeLong(date.getDayNumber());
+            out.write(',');
+            writePrice(date.getPricePerNight());
+            out.write(date.isBooked() ? ",B\n" : ",A\n");
+        }
+        recordCount++;
+    }
+
+    // -------------------------------------------------------
+    // Field writers
+    // -------------------------------------------------------
+
+    /**
+     * Writes a price in centavos with two decimals without String.format.
+     */
+    private void writePrice(long centavos) throws IOException {
+        int start = Money.toChars(centavos, digits);
+        out.write(digits, start, digits.length - start);
+    }
+
+    /**
+     * Writes a whole number using the scratch buffer.
+     */
+    private void writeLong(long value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, pos, digits.length - pos);
+    }
+
+    /**
+     * Writes a CSV field, quoting it only if it contains a comma, quote or line break.
+     */
+    private void writeCsvField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes a quoted JSON string, escaping quotes, backslashes and control characters.
+     */
+    private void writeJsonString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < ' ') {
+                out.write(value, start, i - start);
+                out.write('\\');
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out.write(c);
+                        break;
+                    case '\n':
+                        out.write('n');
+                        break;
+                    case '\r':
+                        out.write('r');
+                        break;
+                    case '\t':
+                        out.write('t');
+                        break;
+                    default:
+                        out.write("u00");
+                        out.write(Character.forDigit(c >> 4, 16));
+                        out.write(Character.forDigit(c & 0xF, 16));
+                }
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
@@ -3,7 +3,7 @@
  * Date.java
  *
  * Represents a date to be used by Green Property Exchange System
- * Each date has a day number, the price per night, and if the date has been booked already
+ * Each date has a day number, the price per night (in centavos), and if the date has been booked already
  *
  * MC01- Green Property Exchange
  * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
@@ -11,18 +11,20 @@
  */
 public class Date {
     private int dayNumber;
-    private double pricePerNight;
+    private long pricePerNight;    // centavos
     private boolean isBooked;
+    private boolean isHeld;
 
     /**
      * Initializes empty day for price and booked status
      * @param dayNumber  The exact day number
-     * @param pricePerNight  Price per night in a specific day
+     * @param pricePerNight  Price per night in a specific day, in centavos
      */
-    public Date(int dayNumber, double pricePerNight){
+    public Date(int dayNumber, long pricePerNight){
         this.dayNumber = dayNumber;
         this.pricePerNight = pricePerNight;
         this.isBooked = false;
+        this.isHeld = false;
     }
 
     // Getters
@@ -37,17 +39,17 @@ public class Date {
 
     /**
      * Gets the price per night.
-     * @return Price per night
+     * @return Price per night in centavos
      */
-    public double getPricePerNight() { 
+    public long getPricePerNight() { 
         return pricePerNight;
     }
 
     /**
      * Updates the price per night (used when Property base price changes).
-     * @param newPrice The new price per night
+     * @param newPrice The new price per night in centavos
      */
-    public void setPricePerNight(double newPrice) {
+    public void setPricePerNight(long newPrice) {
         this.pricePerNight = newPrice;
     }
     
@@ -59,6 +61,28 @@ public class Date {
         return isBooked;
     }
 
+    /**
+     * Checks if the date is temporarily held for a guest who has not confirmed yet.
+     * @return If a date is on hold
+     */
+    public boolean isHeld(){
+        return isHeld;
+    }
+
+    /**
+     * Puts the date on hold while a booking is being confirmed
+     */
+    public void hold(){
+        isHeld = true;
+    }
+
+    /**
+     * Removes the hold after the booking is confirmed, cancelled or expired
+     */
+    public void releaseHold(){
+        isHeld = false;
+    }
+
     /**
      * Updates isBooked to true after a successful booking
      */
@@ -1,4 +1,5 @@
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.NoSuchElementException;
 
 /**
  * Driver.java
@@ -13,56 +14,99 @@ import java.util.Scanner;
 public class Driver {
     /**
      * Main method to run the Green Property Exchange system.
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments: optional replication log path for a standby to follow
      */
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
-        SystemManager manager = new SystemManager();
+        ConsoleInput input = ConsoleInput.shared();
+        SystemManager manager = new SystemManager(input);
 
-        int choice;
-        do {
-            System.out.println("\n==================================");
-            System.out.println("    GREEN PROPERTY EXCHANGE");
-            System.out.println("           MCO1 SYSTEM");
-            System.out.println("==================================");
-            System.out.println("1. Create Property");
-            System.out.println("2. View Property");
-            System.out.println("3. Manage Property");
-            System.out.println("4. Simulate Booking");
-            System.out.println("5. Exit System");
-            System.out.println("==================================");
-            System.out.print("Choose an option (1-5): ");
-
-            while (!sc.hasNextInt()) {
-                System.out.print("[ERROR] Invalid input. Enter a number (1-5): ");
-                sc.next(); // discard invalid input
+        if (args.length > 0) {
+            try {
+                manager.startReplication(args[0]);
+                System.out.println("[INFO] Shipping changes to replication log '" + args[0] + "'.");
+            } catch (IOException e) {
+                System.out.println("[ERROR] Could not start replication log '" + args[0] + "': " + e.getMessage());
             }
+        }
+        runMenu(manager, input);
+    }
 
-            choice = sc.nextInt();
-            sc.nextLine();
+    /**
+     * Runs the main menu until the user exits or input ends.
+     * Also used by a standby that has taken over as the primary.
+     * @param manager the system to operate on
+     * @param input console input
+     */
+    public static void runMenu(SystemManager manager, ConsoleInput input) {
+        try {
+            int choice;
+            do {
+                System.out.println("\n==================================");
+                System.out.println("    GREEN PROPERTY EXCHANGE");
+                System.out.println("           MCO1 SYSTEM");
+                System.out.println("==================================");
+                System.out.println("1. Create Property");
+                System.out.println("2. View Property");
+                System.out.println("3. Manage Property");
+                System.out.println("4. Simulate Booking");
+                System.out.println("5. Group Booking");
+                System.out.println("6. Import Properties");
+                System.out.println("7. Export Data");
+                System.out.println("8. Check Data Consistency");
+                System.out.println("9. Search Cheapest Stays");
+                System.out.println("10. Exit System");
+                System.out.println("==================================");
+                System.out.print("Choose an option (1-10): ");
 
-            switch (choice) {
-                case 1:
-                    manager.createProperty();
-                    break;
-                case 2:
-                    manager.viewProperty();
-                    break;
-                case 3:
-                    manager.manageProperty();
-                    break;
-                case 4:
-                    manager.simulateBooking();
-                    break;
-                case 5:
-                    System.out.println("\nThank you for using Green Property Exchange!");
-                    System.out.println("Goodbye!");
-                    break;
-                default:
-                    System.out.println("[ERROR] Invalid choice. Please select 1-5.");
-            }
-        } while (choice != 5);
+                long num = input.nextInt();
+                while (num == ConsoleInput.NOT_A_NUMBER) {
+                    System.out.print("[ERROR] Invalid input. Enter a number (1-10): ");
+                    num = input.nextInt();
+                }
+                choice = (int) num;
 
-        sc.close();
+                switch (choice) {
+                    case 1:
+                        manager.createProperty();
+                        break;
+                    case 2:
+                        manager.viewProperty();
+                        break;
+                    case 3:
+                        manager.manageProperty();
+                        break;
+                    case 4:
+                        manager.simulateBooking();
+                        break;
+                    case 5:
+                        manager.simulateGroupBooking();
+                        break;
+                    case 6:
+                        manager.importProperties();
+                        break;
+                    case 7:
+                        manager.exportData();
+                        break;
+                    case 8:
+                        manager.checkConsistency();
+                        break;
+                    case 9:
+                        manager.searchCheapestStays();
+                        break;
+                    case 10:
+                        System.out.println("\nThank you for using Green Property Exchange!");
+                        System.out.println("Goodbye!");
+                        break;
+                    default:
+                        System.out.println("[ERROR] Invalid choice. Please select 1-10.");
+                }
+            } while (choice != 10);
+        } catch (NoSuchElementException e) {
+            // piped input ended without choosing Exit
+            System.out.println("\n[INFO] End of input reached.");
+            System.out.println("Goodbye!");
+        } finally {
+            manager.stopReplication();
+        }
     }
 }
\ No newline at end of file
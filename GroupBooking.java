@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GroupBooking.java
+ *
+ * Books the same nights on several properties as one all-or-nothing operation.
+ * The properties may belong to different shards (see ShardedBookingService),
+ * so the booking is made in two steps driven by the caller's thread:
+ *  1. the nights are put on hold on every property, each on its own shard and
+ *     all shards at once;
+ *  2. if every hold succeeded, each hold is turned into a reservation; otherwise
+ *     the holds that were placed are released and nothing is booked.
+ * No lock is held across properties, so group bookings never deadlock with each
+ * other or with single bookings, and other guests only ever see held nights,
+ * never a half-made group of reservations.
+ *
+ * A group keeps nights on hold on all of its properties while it is decided,
+ * so it is limited to MAX_PROPERTIES.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class GroupBooking {
+    /** Most properties in one group booking. */
+    public static final int MAX_PROPERTIES = 50;
+
+    private GroupBooking() {
+    }
+
+    /**
+     * Books nights checkIn up to (not including) checkOut on every property, or on none.
+     * @param shards the shards that own the properties
+     * @param properties the properties to book (each at most once, at most MAX_PROPERTIES)
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return one reservation per property (in the given order), or null if any
+     *         property could not be booked
+     * @throws IllegalArgumentException if there are more than MAX_PROPERTIES properties
+     */
+    public static ArrayList<Reservation> book(ShardedBookingService shards, List<Property> properties,
+                                              String guestName, int checkIn, int checkOut) {
+        if (properties.isEmpty()) {
+            return null;
+        }
+        if (properties.size() > MAX_PROPERTIES) {
+            throw new IllegalArgumentException("A group booking can have at most " + MAX_PROPERTIES + " properties.");
+        }
+        IdentityHashMap<Property, Boolean> seen = new IdentityHashMap<>();
+        for (Property prop : properties) {
+            if (seen.put(prop, Boolean.TRUE) != null) {
+                return null; // the same property twice can never be booked for the same nights
+            }
+        }
+
+        // step 1: hold the nights everywhere
+        int count = properties.size();
+        ArrayList<CompletableFuture<Boolean>> holding = new ArrayList<>(count);
+        for (Property prop : properties) {
+            holding.add(shards.submit(prop, p -> p.holdDates(checkIn, checkOut)));
+        }
+        boolean[] held = new boolean[count];
+        boolean allHeld = true;
+        for (int i = 0; i < count; i++) {
+            held[i] = ShardedBookingService.await(holding.get(i));
+            allHeld &= held[i];
+        }
+        if (!allHeld) {
+            release(shards, properties, held, checkIn, checkOut);
+            return null;
+        }
+
+        // step 2: turn every hold into a reservation
+        ArrayList<CompletableFuture<Reservation>> booking = new ArrayList<>(count);
+        for (Property prop : properties) {
+            booking.add(shards.submit(prop, p -> p.bookHeldDates(guestName, checkIn, checkOut)));
+        }
+        ArrayList<Reservation> booked = new ArrayList<>(count);
+        boolean allBooked = true;
+        for (int i = 0; i < count; i++) {
+            Reservation reservation = ShardedBookingService.await(booking.get(i));
+            booked.add(reservation);
+            allBooked &= reservation != null;
+        }
+        if (!allBooked) {
+            // roll back what was already booked (a failed property already freed its nights)
+            for (int i = 0; i < count; i++) {
+                Reservation reservation = booked.get(i);
+                if (reservation != null) {
+                    shards.run(properties.get(i), p -> p.cancelReservation(reservation));
+                }
+            }
+            return null;
+        }
+        return booked;
+    }
+
+    /**
+     * Releases the holds placed in step 1.
+     */
+    private static void release(ShardedBookingService shards, List<Property> properties, boolean[] held,
+                                int checkIn, int checkOut) {
+        ArrayList<CompletableFuture<Void>> releasing = new ArrayList<>();
+        for (int i = 0; i < held.length; i++) {
+            if (held[i]) {
+                releasing.add(shards.submit(properties.get(i), p -> {
+                    p.releaseHeldDates(checkIn, checkOut);
+                    return null;
+                }));
+            }
+        }
+        for (CompletableFuture<Void> future : releasing) {
+            ShardedBookingService.await(future);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Hold.java
+ *
+ * Represents a tentative booking: the nights of a property are blocked for a guest
+ * until the hold is confirmed, released, or expires. Holds are created and tracked
+ * by HoldManager.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class Hold {
+    private Property property;
+    private String guestName;
+    private int checkIn;      // inclusive
+    private int checkOut;     // exclusive
+    private long deadlineTick;
+    private boolean active;
+
+    // links inside the timing wheel bucket (managed by HoldManager)
+    Hold prev;
+    Hold next;
+
+    /**
+     * Constructs a new active Hold.
+     * @param property      Property whose nights are held
+     * @param guestName     Name of the guest
+     * @param checkIn       Check-in day
+     * @param checkOut      Check-out day
+     * @param deadlineTick  Timing wheel tick at which the hold expires
+     */
+    public Hold(Property property, String guestName, int checkIn, int checkOut, long deadlineTick) {
+        this.property = property;
+        this.guestName = guestName;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.deadlineTick = deadlineTick;
+        this.active = true;
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the held property.
+     * @return Property
+     */
+    public Property getProperty() {
+        return property;
+    }
+
+    /**
+     * Gets the guest's name.
+     * @return The guest's name
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * Gets the check-in day number.
+     * @return Check-in day number
+     */
+    public int getCheckIn() {
+        return checkIn;
+    }
+
+    /**
+     * Gets the check-out day number.
+     * @return Check-out day number
+     */
+    public int getCheckOut() {
+        return checkOut;
+    }
+
+    /**
+     * Gets the tick at which the hold expires.
+     * @return Deadline tick
+     */
+    public long getDeadlineTick() {
+        return deadlineTick;
+    }
+
+    /**
+     * Checks if the hold still blocks its nights.
+     * @return true until it is confirmed, released or expired
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Marks the hold as no longer active.
+     */
+    void deactivate() {
+        active = false;
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HoldManager.java
+ *
+ * Creates tentative holds on property nights and expires the ones that are not
+ * confirmed within a time-to-live (TTL).
+ *
+ * Expiry uses a hashed timing wheel: time is cut into ticks, and each hold is
+ * linked into the bucket for its deadline tick. Advancing the clock only visits
+ * the buckets for the ticks that passed (at most one full turn of the wheel),
+ * so any number of holds can be tracked without a timer per hold, and expired
+ * holds are released in bulk. A background thread advances the wheel once per
+ * tick while any hold is active (and sleeps otherwise), so abandoned holds free
+ * their nights on time even if nobody places or confirms another hold. Every call
+ * also advances the wheel first, so a call never sees a hold that is past its TTL.
+ *
+ * The nights themselves are held, booked and released on the shard that owns the
+ * property (see ShardedBookingService). Expired holds are released without waiting
+ * for their shards, so one busy shard never delays expiry on the others.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class HoldManager {
+    private static final int DEFAULT_WHEEL_SIZE = 512;   // must be a power of two
+
+    private ShardedBookingService shards;
+    private long ttlMillis;
+    private long tickMillis;
+    private Hold[] buckets;
+    private int mask;
+    private long startMillis;
+    private long currentTick;
+    private int activeCount;
+
+    /**
+     * Creates a hold manager with 1-second ticks.
+     * @param ttlMillis how long a hold stays active without confirmation
+     * @param shards    the shards that own the held properties
+     */
+    public HoldManager(long ttlMillis, ShardedBookingService shards) {
+        this(ttlMillis, 1000, DEFAULT_WHEEL_SIZE, shards);
+    }
+
+    /**
+     * Creates a hold manager.
+     * @param ttlMillis  how long a hold stays active without confirmation
+     * @param tickMillis timing wheel resolution
+     * @param wheelSize  number of buckets (rounded up to a power of two)
+     * @param shards     the shards that own the held properties
+     */
+    public HoldManager(long ttlMillis, long tickMillis, int wheelSize, ShardedBookingService shards) {
+        this.shards = shards;
+        this.ttlMillis = Math.max(1, ttlMillis);
+        this.tickMillis = Math.max(1, tickMillis);
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) * 2 - 1);
+        this.buckets = new Hold[size];
+        this.mask = size - 1;
+        this.startMillis = System.currentTimeMillis();
+        this.currentTick = 0;
+
+        Thread ticker = new Thread(this::tickLoop, "hold-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the hold time-to-live.
+     * @return TTL in milliseconds
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Gets the number of holds that are still active.
+     * @return active hold count
+     */
+    public synchronized int getActiveCount() {
+        expireHolds();
+        return activeCount;
+    }
+
+    // -------------------------------------------------------
+    // Core Methods
+    // -------------------------------------------------------
+
+    /**
+     * Holds the nights of a stay for a guest.
+     * @param property property to hold
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the hold, or null if the nights are not available
+     */
+    public synchronized Hold placeHold(Property property, String guestName, int checkIn, int checkOut) {
+        expireHolds();
+        if (!shards.call(property, p -> p.holdDates(checkIn, checkOut))) {
+            return null;
+        }
+        long ticks = (ttlMillis + tickMillis - 1) / tickMillis;
+        Hold hold = new Hold(property, guestName, checkIn, checkOut, currentTick + ticks);
+        link(hold);
+        activeCount++;
+        if (activeCount == 1) {
+            notifyAll();   // wake the ticker
+        }
+        return hold;
+    }
+
+    /**
+     * Converts an active hold into a reservation.
+     * @param hold the hold to confirm
+     * @return the reservation, or null if the hold already expired or was released
+     */
+    public synchronized Reservation confirm(Hold hold) {
+        expireHolds();
+        if (!hold.isActive()) {
+            return null;
+        }
+        unlink(hold);
+        hold.deactivate();
+        activeCount--;
+        return shards.call(hold.getProperty(),
+                p -> p.bookHeldDates(hold.getGuestName(), hold.getCheckIn(), hold.getCheckOut()));
+    }
+
+    /**
+     * Releases an active hold (e.g. the guest cancelled).
+     * @param hold the hold to release
+     */
+    public synchronized void release(Hold hold) {
+        if (hold.isActive()) {
+            ShardedBookingService.await(end(hold));
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time and releases every expired hold.
+     * @return number of holds that expired
+     */
+    public synchronized int expireHolds() {
+        long targetTick = (System.currentTimeMillis() - startMillis) / tickMillis;
+        if (targetTick <= currentTick) {
+            return 0;
+        }
+        // visit each passed bucket once; a full turn covers every bucket
+        long steps = Math.min(targetTick - currentTick, buckets.length);
+        int expired = 0;
+        for (long tick = targetTick - steps + 1; tick <= targetTick; tick++) {
+            Hold hold = buckets[(int) (tick & mask)];
+            while (hold != null) {
+                Hold next = hold.next;
+                if (hold.getDeadlineTick() <= targetTick) {
+                    end(hold);
+                    expired++;
+                }
+                hold = next;
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    /**
+     * Advances the wheel every tick while holds are active.
+     */
+    private void tickLoop() {
+        while (true) {
+            try {
+                synchronized (this) {
+                    while (activeCount == 0) {
+                        wait();
+                    }
+                }
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            expireHolds();
+        }
+    }
+
+    /**
+     * Deactivates a hold, unlinks it from the wheel and queues the release of its nights.
+     * @return completes once the property's shard has freed the nights
+     */
+    private CompletableFuture<Void> end(Hold hold) {
+        unlink(hold);
+        hold.deactivate();
+        activeCount--;
+        return shards.submit(hold.getProperty(), p -> {
+            p.releaseHeldDates(hold.getCheckIn(), hold.getCheckOut());
+            return null;
+        });
+    }
+
+    /**
+     * Adds a hold to the front of its deadline bucket.
+     */
+    private void link(Hold hold) {
+        int index = (int) (hold.getDeadlineTick() & mask);
+        Hold head = buckets[index];
+        hold.prev = null;
+        hold.next = head;
+        if (head != null) {
+            head.prev = hold;
+        }
+        buckets[index] = hold;
+    }
+
+    /**
+     * Removes a hold from its bucket in O(1).
+     */
+    private void unlink(Hold hold) {
+        int index = (int) (hold.getDeadlineTick() & mask);
+        if (hold.prev != null) {
+            hold.prev.next = hold.next;
+        } else {
+            buckets[index] = hold.next;
+        }
+        if (hold.next != null) {
+            hold.next.prev = hold.prev;
+        }
+        hold.prev = null;
+        hold.next = null;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Money.java
+ *
+ * Helpers for amounts stored as whole centavos in a long (PHP 1,500.00 = 150000).
+ * Whole-number amounts add up exactly in any order, so totals are the same no matter
+ * how a sum is split across threads, and formatting never needs String.format.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public final class Money {
+    /** Centavos in one peso. */
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    /** Longest formatted amount: sign, 19 digits and the decimal point. */
+    public static final int MAX_CHARS = 21;
+
+    private Money() {
+    }
+
+    /**
+     * Converts whole pesos to centavos.
+     * @param pesos amount in pesos
+     * @return amount in centavos
+     */
+    public static long ofPesos(long pesos) {
+        return pesos * CENTAVOS_PER_PESO;
+    }
+
+    /**
+     * Parses an amount like 1500, 1500.5 or 1500.50 without throwing.
+     * @param text the amount
+     * @return amount in centavos, or -1 if the text is not a valid amount
+     */
+    public static long parse(String text) {
+        char[] chars = text.trim().toCharArray();
+        return parse(chars, 0, chars.length);
+    }
+
+    /**
+     * Parses an amount from part of a char array without throwing or allocating.
+     * @param chars source characters
+     * @param from first index
+     * @param to index after the last character
+     * @return amount in centavos, or -1 if the characters are not a valid amount
+     */
+    public static long parse(char[] chars, int from, int to) {
+        long pesos = 0;
+        int digits = 0;
+        int pos = from;
+        while (pos < to && chars[pos] >= '0' && chars[pos] <= '9') {
+            if (++digits > 15) {
+                return -1;
+            }
+            pesos = pesos * 10 + (chars[pos++] - '0');
+        }
+        long cents = 0;
+        int decimals = 0;
+        if (pos < to && chars[pos] == '.') {
+            pos++;
+            while (pos < to && chars[pos] >= '0' && chars[pos] <= '9') {
+                if (++decimals > 2) {
+                    return -1;
+                }
+                cents = cents * 10 + (chars[pos++] - '0');
+            }
+        }
+        if (pos != to || (digits == 0 && decimals == 0)) {
+            return -1;
+        }
+        if (decimals == 1) {
+            cents *= 10;
+        }
+        return pesos * CENTAVOS_PER_PESO + cents;
+    }
+
+    /**
+     * Writes an amount with two decimals into the end of a buffer.
+     * @param centavos amount in centavos
+     * @param buffer destination, at least MAX_CHARS long
+     * @return index of the first written character (the text ends at buffer.length)
+     */
+    public static int toChars(long centavos, char[] buffer) {
+        boolean negative = centavos < 0;
+        // work with negative values so Long.MIN_VALUE does not overflow
+        long value = negative ? centavos : -centavos;
+        int pos = buffer.length;
+        buffer[--pos] = (char) ('0' - value % 10);
+        value /= 10;
+        buffer[--pos] = (char) ('0' - value % 10);
+        value /= 10;
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' - value % 10);
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            buffer[--pos] = '-';
+        }
+        return pos;
+    }
+
+    /**
+     * Formats an amount with two decimals, e.g. 150000 becomes "1500.00".
+     * @param centavos amount in centavos
+     * @return formatted amount
+     */
+    public static String format(long centavos) {
+        char[] buffer = new char[MAX_CHARS];
+        int start = toChars(centavos, buffer);
+        return new String(buffer, start, buffer.length - start);
+    }
+
+    /**
+     * Adds up amounts. Plain long addition, so the loop vectorizes and
+     * any split of the array gives the same exact total.
+     * @param centavos amounts in centavos
+     * @return total in centavos
+     */
+    public static long sum(long[] centavos) {
+        long total = 0;
+        for (int i = 0; i < centavos.length; i++) {
+            total += centavos[i];
+        }
+        return total;
+    }
+}
@@ -1,21 +1,63 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Property.java
  * 
  * Represents a property listing in the Green Property Exchange system.
- * Each property contains its name, base price per night, a list of available dates,
+ * Each property contains its name, base price per night, its available dates
+ * (one slot per day number, so a day is found, added or removed in O(1)),
  * and a list of reservations (initially empty). 
+ * Booking-related methods are synchronized on the property, so one property's
+ * calendar is only changed by one thread at a time. Inside a SystemManager every
+ * change runs on the thread of the property's shard (see ShardedBookingService),
+ * and the lock only keeps readers consistent.
+ * The dates and reservations can be paged out to disk by a PropertyPager while the
+ * property is not used; the rest of the object stays in memory as a small handle
+ * with summary counters, and the calendar is loaded back on first access.
  * 
  * MCO1 - Green Property Exchange
  * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
  * @version 1.5
  */
 public class Property {
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private long id;
     private String name;
-    private double basePrice;
-    private ArrayList<Date> dates;
-    private ArrayList<Reservation> reservations;
+    private long basePrice;    // centavos
+    private volatile Date[] days;                          // index = day number, null slot = not listed; null while paged out
+    private volatile ArrayList<Reservation> reservations;  // null while paged out
+    private Waitlist waitlist;
+    private volatile long version;    // bumped on every calendar, price or rule change
+    private int freeMask;             // bit d set if day d is listed, not booked and not held
+    private StayRules rules;
+    private CalendarHistory history;  // created on the first change after setup
+    private long createdMillis;
+    private ReplicationLog log;       // null unless changes are shipped to a standby
+
+    // summary kept with the handle, so it is known without loading the calendar
+    private int dateCount;
+    private int bookedCount;
+    private int heldCount;
+    private int reservationCount;
+    private long earnings;            // centavos
+    private boolean uniformPrice = true; // every listed night costs basePrice
+
+    // paging (see PropertyPager)
+    private PropertyPager pager;      // null if this property is never paged out
+    private long spillOffset = -1;    // this property's slot in the spill file, -1 if none
+    private int spillLength;
+    private int spillCapacity;
+    private long spilledVersion = -1; // version saved in the spill file, -1 if none
+    int tableSlot = -1;               // handle in the SystemManager's PropertyTable, guarded by the table
+    volatile int shard = -1;          // owning shard in the ShardedBookingService, -1 if not registered
+    int residentSlot = -1;            // index in the pager's resident list, guarded by the pager
+    boolean referenced;               // set on access, cleared by the pager's clock sweep
 
     /** 
      * Default base price for all properties (PHP 1,500.00 per night).
@@ -23,20 +65,54 @@ public class Property {
      * @param name  property name
      */
     public Property(String name) {
+        this.id = NEXT_ID.incrementAndGet();
         if (name == null || name.trim().isEmpty()) {
             this.name = "Unnamed Property";
         } else {
             this.name = name.trim();
         }
-        this.basePrice = 1500.00;
-        this.dates = new ArrayList<>();
+        this.basePrice = Money.ofPesos(1500);
+        this.days = new Date[31];
         this.reservations = new ArrayList<>();
+        this.waitlist = new Waitlist();
+        this.rules = StayRules.NONE;
+        this.history = null;
+        this.createdMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a property with a custom base price (used by bulk import).
+     * The price is assumed to be validated already (>= 100 PHP).
+     * @param name  property name
+     * @param basePrice  base price per night in centavos
+     */
+    public Property(String name, long basePrice) {
+        this(name);
+        this.basePrice = basePrice;
     }
 
     // -------------------------------------------------------
     // Getters and Setters
     // -------------------------------------------------------
 
+    /**
+     * Gets the unique id given to the property when it was created.
+     * Used to lock properties in a fixed global order.
+     * @return property id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the version of the calendar. It changes whenever a booking, hold,
+     * date or price changes, so cached quotes can be keyed by it.
+     * @return current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Gets the property name.
      * @return property name
@@ -51,47 +127,95 @@ public class Property {
      * @param newName new property name
      */
     public void setName(String newName) {
-        if (newName == null || newName.trim().isEmpty()) {
+        if (!rename(newName)) {
             System.out.println("[ERROR] Invalid name. Property name cannot be blank.");
         } else {
-            this.name = newName.trim();
             System.out.println("[SUCCESS] Property name successfully changed to: " + this.name);
         }
     }
 
+    /**
+     * Updates the property's name without printing anything.
+     * @param newName new property name
+     * @return true if renamed, false if the name is blank
+     */
+    public synchronized boolean rename(String newName) {
+        if (newName == null || newName.trim().isEmpty()) {
+            return false;
+        }
+        String oldName = name;
+        this.name = newName.trim();
+        if (log != null) {
+            log.renamed(oldName, name);
+        }
+        return true;
+    }
+
     /**
      * Gets the base price per night.
-     * @return base price per night
+     * @return base price per night in centavos
      */
-    public double getBasePrice() {
+    public long getBasePrice() {
         return basePrice;
     }
 
     /**
      * Updates the base price for all dates.
      * Can only be changed if there are no reservations.
-     * @param newPrice new base price (must be >= 100 PHP)
+     * @param newPrice new base price in centavos (must be >= 100 PHP)
      */
-    public void setBasePrice(double newPrice) {
-        if (newPrice < 100) {
-            System.out.println("[ERROR] New price must be at least PHP 100.00.");
-        } else if (!reservations.isEmpty()) {
-            System.out.println("[ERROR] Cannot change base price while reservations exist.");
+    public synchronized void setBasePrice(long newPrice) {
+        String error = updateBasePrice(newPrice);
+        if (error != null) {
+            System.out.println("[ERROR] " + error);
         } else {
-            this.basePrice = newPrice;
-            for (Date d : dates) {
-                d.setPricePerNight(newPrice);
+            System.out.println("[SUCCESS] Base price successfully updated to PHP " + Money.format(newPrice));
+        }
+    }
+
+    /**
+     * Updates the base price for all dates without printing anything.
+     * Follows the same rules as setBasePrice.
+     * @param newPrice new base price in centavos
+     * @return error message, or null if the price was changed
+     */
+    public synchronized String updateBasePrice(long newPrice) {
+        ensureHistory();
+        if (newPrice < Money.ofPesos(100)) {
+            return "New price must be at least PHP 100.00.";
+        }
+        if (!reservations().isEmpty()) {
+            return "Cannot change base price while reservations exist.";
+        }
+        this.basePrice = newPrice;
+        Date[] days = days();
+        for (int day = 1; day <= 30; day++) {
+            if (days[day] != null) {
+                days[day].setPricePerNight(newPrice);
             }
-            System.out.println("[SUCCESS] Base price successfully updated to PHP " + String.format("%.2f", newPrice));
         }
+        changed();
+        history.record(this, 1, 31);
+        if (log != null) {
+            log.priceChanged(name, newPrice);
+        }
+        return null;
     }
 
     /**
-     * Gets the list of available dates.
+     * Gets the available dates in day order. The list is a copy;
+     * use addDate and removeDate to change the calendar, and findDate to look up one day.
      * @return list of Date objects
      */
     public ArrayList<Date> getDates() {
-        return dates;
+        Date[] days = days();
+        ArrayList<Date> list = new ArrayList<>(dateCount);
+        for (int day = 1; day <= 30; day++) {
+            if (days[day] != null) {
+                list.add(days[day]);
+            }
+        }
+        return list;
     }
 
     /**
@@ -99,7 +223,227 @@ public class Property {
      * @return list of Reservation objects
      */
     public ArrayList<Reservation> getReservations() {
-        return reservations;
+        return reservations();
+    }
+
+    /**
+     * Gets the waitlist of stays that could not be booked yet.
+     * @return waitlist
+     */
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    /**
+     * Gets the booking rules of this property.
+     * @return stay rules
+     */
+    public StayRules getStayRules() {
+        return rules;
+    }
+
+    /**
+     * Replaces the booking rules of this property.
+     * @param rules the new stay rules
+     */
+    public synchronized void setStayRules(StayRules rules) {
+        this.rules = rules;
+        changed();
+        if (log != null) {
+            log.rulesChanged(name, rules);
+        }
+    }
+
+    /**
+     * Gets the history of past calendar versions.
+     * @return calendar history
+     */
+    public synchronized CalendarHistory getHistory() {
+        return ensureHistory();
+    }
+
+    /**
+     * Starts shipping this property's changes to a replication log.
+     * The property's current state is written first, so a standby
+     * reading the log can rebuild it before applying later changes.
+     * @param log the replication log
+     */
+    synchronized void attachLog(ReplicationLog log) {
+        this.log = log;
+        log.propertyCreated(this);
+    }
+
+    /**
+     * Stops shipping this property's changes and records its removal.
+     */
+    synchronized void detachLog() {
+        if (log != null) {
+            log.propertyRemoved(name);
+            log = null;
+        }
+    }
+
+    /**
+     * Starts the calendar history on first use, so properties that never change
+     * after being set up (e.g. by bulk import) do not pay for it.
+     * Called at the start of every recorded change, so version 1 holds the state before it.
+     */
+    private CalendarHistory ensureHistory() {
+        if (history == null) {
+            history = new CalendarHistory(this, createdMillis);
+        }
+        return history;
+    }
+
+    // -------------------------------------------------------
+    // Paging
+    // -------------------------------------------------------
+
+    /**
+     * Lets a pager move this property's calendar to disk while it is not used.
+     * @param pager the pager, or null to keep the calendar in memory
+     */
+    synchronized void setPager(PropertyPager pager) {
+        if (pager == null) {
+            days();
+            if (this.pager != null && spillOffset >= 0) {
+                this.pager.free(spillOffset, spillCapacity);
+                spillOffset = -1;
+                spilledVersion = -1;
+            }
+        }
+        this.pager = pager;
+    }
+
+    /**
+     * Checks if the dates and reservations are in memory.
+     * @return true if loaded
+     */
+    public boolean isLoaded() {
+        return days != null;
+    }
+
+    /**
+     * Gets the day slots, loading them first if they were paged out.
+     */
+    private Date[] days() {
+        Date[] d = days;
+        if (d == null) {
+            synchronized (this) {      // so it cannot be paged out again before it is read
+                pageIn();
+                d = days;
+            }
+        }
+        if (!referenced) {
+            referenced = true;
+        }
+        return d;
+    }
+
+    /**
+     * Gets the reservations, loading them first if they were paged out.
+     */
+    private ArrayList<Reservation> reservations() {
+        ArrayList<Reservation> r = reservations;
+        if (r == null) {
+            synchronized (this) {      // so it cannot be paged out again before it is read
+                pageIn();
+                r = reservations;
+            }
+        }
+        if (!referenced) {
+            referenced = true;
+        }
+        return r;
+    }
+
+    /**
+     * Loads the dates and reservations back from the pager's file.
+     */
+    private synchronized void pageIn() {
+        if (days != null) {
+            return;
+        }
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.wrap(pager.read(spillOffset, spillLength));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the calendar of '" + name + "'", e);
+        }
+        int dateTotal = in.get();
+        Date[] loadedDays = new Date[31];
+        for (int i = 0; i < dateTotal; i++) {
+            int day = in.get();
+            Date date = new Date(day & 0x7f, in.getLong());
+            if (day < 0) {
+                date.book();
+            }
+            loadedDays[day & 0x7f] = date;
+        }
+        days = loadedDays;    // first, so calculateTotal can read the nights; reservations() still waits for the lock
+        int reservationTotal = in.getShort();
+        ArrayList<Reservation> loadedReservations = new ArrayList<>(reservationTotal);
+        for (int i = 0; i < reservationTotal; i++) {
+            byte[] guest = new byte[in.getInt()];
+            in.get(guest);
+            Reservation r = new Reservation(new String(guest, StandardCharsets.UTF_8), in.get(), in.get());
+            r.calculateTotal(this);
+            loadedReservations.add(r);
+        }
+        reservations = loadedReservations;
+        pager.pagedIn(this);
+    }
+
+    /**
+     * Writes the dates and reservations to the pager's file and drops them from memory.
+     * Properties with held nights or waiting guests stay in memory, since holds and
+     * waitlists are not saved. If nothing changed since the last page-out, the saved
+     * copy is reused.
+     * @return true if the calendar was paged out
+     */
+    synchronized boolean pageOut() {
+        if (days == null || pager == null || heldCount > 0 || waitlist.size() > 0) {
+            return false;
+        }
+        if (spilledVersion != version) {
+            // day (high bit = booked) and price per date; guest and nights per reservation
+            byte[][] guests = new byte[reservations.size()][];
+            int size = 3 + dateCount * 9;
+            for (int i = 0; i < guests.length; i++) {
+                guests[i] = reservations.get(i).getGuestName().getBytes(StandardCharsets.UTF_8);
+                size += 6 + guests[i].length;
+            }
+            ByteBuffer out = ByteBuffer.allocate(size);
+            out.put((byte) dateCount);
+            for (Date date : days) {
+                if (date != null) {
+                    out.put((byte) (date.getDayNumber() | (date.isBooked() ? 0x80 : 0)));
+                    out.putLong(date.getPricePerNight());
+                }
+            }
+            out.putShort((short) guests.length);
+            for (int i = 0; i < guests.length; i++) {
+                Reservation r = reservations.get(i);
+                out.putInt(guests[i].length);
+                out.put(guests[i]);
+                out.put((byte) r.getCheckIn());
+                out.put((byte) r.getCheckOut());
+            }
+            long offset = pager.write(out.array(), spillOffset, spillCapacity);
+            if (offset < 0) {
+                return false;
+            }
+            if (offset != spillOffset) {
+                spillCapacity = PropertyPager.slotSize(size);
+            }
+            spillOffset = offset;
+            spillLength = size;
+            spilledVersion = version;
+        }
+        days = null;
+        reservations = null;
+        pager.pagedOut(this);
+        return true;
     }
 
     // -------------------------------------------------------
@@ -110,46 +454,102 @@ public class Property {
      * Adds a new available date to the property (max 30).
      * @param dayNumber the day number (1 – 30)
      */
-    public void addDate(int dayNumber) {
-        if (dates.size() >= 30) {
-            System.out.println("[ERROR] Cannot add more than 30 dates.");
+    public synchronized void addDate(int dayNumber) {
+        ensureHistory();
+        String error = validateNewDate(dayNumber);
+        if (error != null) {
+            System.out.println("[ERROR] " + error);
             return;
         }
-        if (dayNumber < 1 || dayNumber > 30) {
-            System.out.println("[ERROR] Invalid day number. Must be between 1-30.");
-            return;
+
+        days()[dayNumber] = new Date(dayNumber, basePrice);
+        changed();
+        history.record(this, dayNumber, dayNumber + 1);
+        if (log != null) {
+            log.dateAdded(name, dayNumber);
         }
+        System.out.println("[SUCCESS] Added date " + dayNumber + " with price PHP " + Money.format(basePrice));
+        nightsReleased(dayNumber, dayNumber + 1);
+    }
 
-        // check for duplicates
-        for (Date d : dates) {
-            if (d.getDayNumber() == dayNumber) {
-                System.out.println("[ERROR] Day " + dayNumber + " already exists in this property.");
-                return;
-            }
+    /**
+     * Adds a date without printing anything (used by bulk import).
+     * Follows the same rules as addDate.
+     * @param dayNumber the day number (1 – 30)
+     * @return true if the date was added
+     */
+    public synchronized boolean importDate(int dayNumber) {
+        if (validateNewDate(dayNumber) != null) {
+            return false;
+        }
+        days()[dayNumber] = new Date(dayNumber, basePrice);
+        changed();
+        if (history != null) {
+            history.record(this, dayNumber, dayNumber + 1);
+        }
+        if (log != null) {
+            log.dateAdded(name, dayNumber);
         }
+        nightsReleased(dayNumber, dayNumber + 1);
+        return true;
+    }
 
-        dates.add(new Date(dayNumber, basePrice));
-        System.out.println("[SUCCESS] Added date " + dayNumber + " with price PHP " + String.format("%.2f", basePrice));
+    /**
+     * Checks if a day can be added to this property.
+     * @param dayNumber the day number to check
+     * @return error message, or null if the day can be added
+     */
+    public String validateNewDate(int dayNumber) {
+        if (dateCount >= 30) {
+            return "Cannot add more than 30 dates.";
+        }
+        if (dayNumber < 1 || dayNumber > 30) {
+            return "Invalid day number. Must be between 1-30.";
+        }
+        if (days()[dayNumber] != null) {
+            return "Day " + dayNumber + " already exists in this property.";
+        }
+        return null;
     }
 
     /**
      * Removes a date by its number.
      * @param dayNumber day number to remove
      */
-    public void removeDate(int dayNumber) {
-        for (int i = 0; i < dates.size(); i++) {
-            Date date = dates.get(i);
-            if (date.getDayNumber() == dayNumber) {
-                if (date.isBooked()) {
-                    System.out.println("[ERROR] Cannot remove date " + dayNumber + " because it is currently booked.");
-                    return;
-                }
-                dates.remove(i);
-                System.out.println("[SUCCESS] Removed date " + dayNumber);
-                return;
-            }
+    public synchronized void removeDate(int dayNumber) {
+        String error = tryRemoveDate(dayNumber);
+        if (error != null) {
+            System.out.println("[ERROR] " + error);
+        } else {
+            System.out.println("[SUCCESS] Removed date " + dayNumber);
+        }
+    }
+
+    /**
+     * Removes a date by its number without printing anything.
+     * Follows the same rules as removeDate.
+     * @param dayNumber day number to remove
+     * @return error message, or null if the date was removed
+     */
+    public synchronized String tryRemoveDate(int dayNumber) {
+        ensureHistory();
+        Date date = findDate(dayNumber);
+        if (date == null) {
+            return "Date " + dayNumber + " not found in this property.";
+        }
+        if (date.isBooked()) {
+            return "Cannot remove date " + dayNumber + " because it is currently booked.";
+        }
+        if (date.isHeld()) {
+            return "Cannot remove date " + dayNumber + " because it is on hold for a booking.";
         }
-        System.out.println("[ERROR] Date " + dayNumber + " not found in this property.");
+        days()[dayNumber] = null;
+        changed();
+        history.record(this, dayNumber, dayNumber + 1);
+        if (log != null) {
+            log.dateRemoved(name, dayNumber);
+        }
+        return null;
     }
 
     /**
@@ -158,12 +558,10 @@ public class Property {
      * @return Date object or null if not found
      */
     public Date findDate(int dayNumber) {
-        for (Date date : dates) {
-            if (date.getDayNumber() == dayNumber) {
-                return date;
-            }
+        if (dayNumber < 1 || dayNumber > 30) {
+            return null;
         }
-        return null;
+        return days()[dayNumber];
     }
 
     /**
@@ -179,7 +577,7 @@ public class Property {
             Date date = findDate(day);
             if (date == null) {
                 unavailableDays.add(day);
-            } else if (date.isBooked()) {
+            } else if (date.isBooked() || date.isHeld()) {
                 unavailableDays.add(day);
             }
         }
@@ -190,49 +588,304 @@ public class Property {
                 Date problemDate = findDate(unavailableDays.get(0));
                 if (problemDate != null && problemDate.isBooked()) {
                     System.out.println("   Day " + unavailableDays.get(0) + " is already booked.");
+                } else if (problemDate != null && problemDate.isHeld()) {
+                    System.out.println("   Day " + unavailableDays.get(0) + " is on hold for another guest.");
                 } else {
                     System.out.println("   Day " + unavailableDays.get(0) + " is not available in this property.");
                 }
             }
+            String ruleError = rules.explain(freeMask | StayRules.rangeMask(checkIn, checkOut), checkIn, checkOut);
+            if (ruleError != null) {
+                System.out.println("[ERROR] " + ruleError);
+            }
+            return false;
+        }
+
+        String ruleError = rules.explain(freeMask, checkIn, checkOut);
+        if (ruleError != null) {
+            System.out.println("[ERROR] " + ruleError);
             return false;
         }
         return true;
     }
 
+    /**
+     * Checks if a stay could be booked once its own nights are free, i.e. it follows
+     * the property's rules (including gaps left next to it) with the rest of the
+     * calendar as it is now. Used to decide whether waiting for the nights makes
+     * sense: the waitlist only re-checks a stay when its own nights are freed, so a
+     * stay the rules reject for any other reason would never leave it.
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return true if the rules allow the stay once its nights are free
+     */
+    public synchronized boolean allowsWhenFree(int checkIn, int checkOut) {
+        return checkIn >= 1 && checkIn < checkOut && checkOut <= 30
+                && rules.allows(freeMask | StayRules.rangeMask(checkIn, checkOut), checkIn, checkOut);
+    }
+
+    /**
+     * Checks if all nights from checkIn up to (not including) checkOut are
+     * listed and free and the stay follows the property's rules, without printing anything.
+     * This is the booking hot path: availability and every rule are checked together
+     * with a few bit operations on the free-night mask.
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return true if the stay can be booked
+     */
+    public synchronized boolean canBook(int checkIn, int checkOut) {
+        if (checkIn < 1 || checkOut > 30 || checkIn >= checkOut) {
+            return false;
+        }
+        return rules.allows(freeMask, checkIn, checkOut);
+    }
+
+    /**
+     * Books the nights and adds the reservation in one step, without printing anything.
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the new reservation, or null if the nights are not available
+     */
+    public synchronized Reservation tryBook(String guestName, int checkIn, int checkOut) {
+        if (!canBook(checkIn, checkOut)) {
+            return null;
+        }
+        Reservation reservation = new Reservation(guestName, checkIn, checkOut);
+        bookDates(checkIn, checkOut);
+        addReservation(reservation);
+        return reservation;
+    }
+
+    /**
+     * Quotes a stay without creating a Reservation.
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the quote, tagged with the calendar version it was computed from
+     */
+    public synchronized Quote quote(int checkIn, int checkOut) {
+        long total = stayTotal(checkIn, checkOut);
+        return new Quote(version, total >= 0, Math.max(0, total));
+    }
+
+    /**
+     * Adds up the nightly prices of a stay in one pass over the dates,
+     * without creating a Reservation or any other object.
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return total price in centavos, or -1 if the stay cannot be booked
+     */
+    public synchronized long stayTotal(int checkIn, int checkOut) {
+        if (!canBook(checkIn, checkOut)) {
+            return -1;
+        }
+        if (days == null && uniformPrice) {
+            return (checkOut - checkIn) * basePrice;   // no need to load a paged-out calendar
+        }
+        long total = 0;
+        Date[] days = days();
+        for (int day = checkIn; day < checkOut; day++) {
+            total += days[day].getPricePerNight();    // canBook checked every night is listed
+        }
+        return total;
+    }
+
+    /**
+     * Puts the nights on hold so no one else can book them (see HoldManager).
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return true if all nights were free and are now held
+     */
+    public synchronized boolean holdDates(int checkIn, int checkOut) {
+        if (!canBook(checkIn, checkOut)) {
+            return false;
+        }
+        for (int day = checkIn; day < checkOut; day++) {
+            findDate(day).hold();
+        }
+        changed();
+        return true;
+    }
+
+    /**
+     * Releases held nights so they can be booked again.
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     */
+    public synchronized void releaseHeldDates(int checkIn, int checkOut) {
+        clearHolds(checkIn, checkOut);
+        nightsReleased(checkIn, checkOut);
+    }
+
+    /**
+     * Turns held nights into a reservation without giving the waitlist a chance to take them.
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the new reservation, or null if the nights could not be booked
+     */
+    public synchronized Reservation bookHeldDates(String guestName, int checkIn, int checkOut) {
+        clearHolds(checkIn, checkOut);
+        Reservation reservation = tryBook(guestName, checkIn, checkOut);
+        if (reservation == null) {
+            nightsReleased(checkIn, checkOut);
+        }
+        return reservation;
+    }
+
+    /**
+     * Removes the hold flag from the nights.
+     */
+    private void clearHolds(int checkIn, int checkOut) {
+        for (int day = checkIn; day < checkOut; day++) {
+            Date date = findDate(day);
+            if (date != null) {
+                date.releaseHold();
+            }
+        }
+        changed();
+    }
+
+    /**
+     * Adds a stay to the waitlist, to be booked automatically once its nights free up.
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     */
+    public synchronized void joinWaitlist(String guestName, int checkIn, int checkOut) {
+        waitlist.add(guestName, checkIn, checkOut);
+    }
+
+    /**
+     * Cancels a reservation and frees its nights.
+     * @param reservation the reservation to cancel
+     * @return true if the reservation belonged to this property
+     */
+    public synchronized boolean cancelReservation(Reservation reservation) {
+        ensureHistory();
+        if (!reservations().remove(reservation)) {
+            // the calendar may have been paged out and loaded again since the caller got it
+            reservation = findReservation(reservation);
+            if (reservation == null || !reservations().remove(reservation)) {
+                return false;
+            }
+        }
+        for (int day = reservation.getCheckIn(); day < reservation.getCheckOut(); day++) {
+            Date date = findDate(day);
+            if (date != null) {
+                date.unbook();
+            }
+        }
+        changed();
+        history.record(this, reservation.getCheckIn(), reservation.getCheckOut());
+        if (log != null) {
+            log.cancelled(name, reservation);
+        }
+        nightsReleased(reservation.getCheckIn(), reservation.getCheckOut());
+        return true;
+    }
+
+    /**
+     * Finds this property's reservation for the same guest and nights.
+     */
+    private Reservation findReservation(Reservation other) {
+        for (Reservation r : reservations()) {
+            if (r.getGuestName().equals(other.getGuestName()) && r.getCheckIn() == other.getCheckIn()
+                    && r.getCheckOut() == other.getCheckOut()) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that the calendar, prices or rules changed: bumps the version
+     * and rebuilds the free-night mask used by canBook and the summary counters.
+     */
+    private void changed() {
+        int mask = 0;
+        int booked = 0;
+        int held = 0;
+        boolean uniform = true;
+        int listed = 0;
+        for (Date date : days()) {
+            if (date == null) {
+                continue;
+            }
+            listed++;
+            uniform &= date.getPricePerNight() == basePrice;
+            if (date.isBooked()) {
+                booked++;
+            } else if (date.isHeld()) {
+                held++;
+            } else {
+                mask |= 1 << date.getDayNumber();
+            }
+        }
+        long total = 0;
+        ArrayList<Reservation> reservations = reservations();
+        for (Reservation r : reservations) {
+            total += r.getTotalPrice();
+        }
+        freeMask = mask;
+        dateCount = listed;
+        bookedCount = booked;
+        heldCount = held;
+        reservationCount = reservations.size();
+        earnings = total;
+        uniformPrice = uniform;
+        version++;
+    }
+
+    /**
+     * Lets the waitlist book any waiting stays that fit the freed nights.
+     * @param from first freed night
+     * @param to night after the last freed night
+     */
+    private void nightsReleased(int from, int to) {
+        for (Reservation r : waitlist.nightsReleased(this, from, to)) {
+            System.out.println("[INFO] Waitlisted guest '" + r.getGuestName() + "' was booked automatically at "
+                    + name + " (Day " + r.getCheckIn() + " to " + r.getCheckOut() + ").");
+        }
+    }
+
     /**
      * Books dates for a reservation.
      * @param checkIn check-in day
      * @param checkOut check-out day
      */
-    public void bookDates(int checkIn, int checkOut) {
+    public synchronized void bookDates(int checkIn, int checkOut) {
+        ensureHistory();
         for (int day = checkIn; day < checkOut; day++) {
             Date date = findDate(day);
             if (date != null) {
                 date.book();
             }
         }
+        changed();
+        history.record(this, checkIn, checkOut);
     }
 
     /**
      * Adds a reservation to the property.
      * @param reservation the reservation to add
      */
-    public void addReservation(Reservation reservation) {
-        reservations.add(reservation);
+    public synchronized void addReservation(Reservation reservation) {
+        reservations().add(reservation);
         // Recalculate total price for this reservation
-        reservation.calculateTotal(dates);
+        reservation.calculateTotal(this);
+        changed();
+        if (log != null) {
+            log.booked(name, reservation);
+        }
     }
 
     /**
      * Calculates total earnings for all reservations.
-     * @return total revenue for the property
+     * @return total revenue for the property in centavos
      */
-    public double calculateEarnings() {
-        double total = 0;
-        for (Reservation r : reservations) {
-            total += r.getTotalPrice();
-        }
-        return total;
+    public synchronized long calculateEarnings() {
+        return earnings;
     }
 
     /**
@@ -240,13 +893,7 @@ public class Property {
      * @return number of available dates
      */
     public int getAvailableDateCount() {
-        int count = 0;
-        for (Date date : dates) {
-            if (!date.isBooked()) {
-                count++;
-            }
-        }
-        return count;
+        return dateCount - bookedCount;
     }
 
     /**
@@ -254,13 +901,23 @@ public class Property {
      * @return number of booked dates
      */
     public int getBookedDateCount() {
-        int count = 0;
-        for (Date date : dates) {
-            if (date.isBooked()) {
-                count++;
-            }
-        }
-        return count;
+        return bookedCount;
+    }
+
+    /**
+     * Gets the number of listed dates.
+     * @return number of dates
+     */
+    public int getDateCount() {
+        return dateCount;
+    }
+
+    /**
+     * Gets the number of reservations.
+     * @return number of reservations
+     */
+    public int getReservationCount() {
+        return reservationCount;
     }
 
     /**
@@ -270,12 +927,13 @@ public class Property {
         System.out.println("\n=== PROPERTY INFORMATION ===");
         System.out.println("-----------------------------------");
         System.out.println("Property Name: " + name);
-        System.out.println("Base Price: PHP " + String.format("%.2f", basePrice) + " per night");
-        System.out.println("Total Dates Listed: " + dates.size());
+        System.out.println("Base Price: PHP " + Money.format(basePrice) + " per night");
+        System.out.println("Total Dates Listed: " + dateCount);
         System.out.println("Available Dates: " + getAvailableDateCount());
         System.out.println("Booked Dates: " + getBookedDateCount());
-        System.out.println("Total Reservations: " + reservations.size());
-        System.out.println("Total Earnings: PHP " + String.format("%.2f", calculateEarnings()));
+        System.out.println("Total Reservations: " + reservationCount);
+        System.out.println("Stay Rules: " + rules.describe());
+        System.out.println("Total Earnings: PHP " + Money.format(calculateEarnings()));
         System.out.println("-----------------------------------");
     }
 
@@ -284,7 +942,7 @@ public class Property {
      */
     public void displayCalendar() {
         System.out.println("\n=== PROPERTY CALENDAR VIEW ===");
-        System.out.println("Base Price: PHP " + String.format("%.2f", basePrice) + " per night");
+        System.out.println("Base Price: PHP " + Money.format(basePrice) + " per night");
         System.out.println("\n+-----------------------------+");
         System.out.println("|        MONTH CALENDAR       |");
         System.out.println("+-----------------------------+");
@@ -307,6 +965,8 @@ public class Property {
             if (date != null) {
                 if (date.isBooked()) {
                     status = "B"; // Booked
+                } else if (date.isHeld()) {
+                    status = "H"; // On hold
                 } else {
                     status = "A"; // Available
                 }
@@ -324,6 +984,7 @@ public class Property {
         System.out.println("\n+-----------------------------+");
         System.out.println("| A = Available              |");
         System.out.println("| B = Booked                 |");
+        System.out.println("| H = On hold                |");
         System.out.println("| - = Not in property        |");
         System.out.println("+-----------------------------+");
     }
@@ -342,11 +1003,11 @@ public class Property {
         System.out.println("\n=== DATE DETAILS ===");
         System.out.println("-----------------------------------");
         System.out.println("Day Number: " + dayNumber);
-        System.out.println("Price per night: PHP " + String.format("%.2f", date.getPricePerNight()));
-        System.out.println("Status: " + (date.isBooked() ? "BOOKED" : "AVAILABLE"));
+        System.out.println("Price per night: PHP " + Money.format(date.getPricePerNight()));
+        System.out.println("Status: " + (date.isBooked() ? "BOOKED" : date.isHeld() ? "ON HOLD" : "AVAILABLE"));
         
         // Find which reservation booked this date
-        for (Reservation reservation : reservations) {
+        for (Reservation reservation : reservations()) {
             if (dayNumber >= reservation.getCheckIn() && dayNumber < reservation.getCheckOut()) {
                 System.out.println("Booked by: " + reservation.getGuestName());
                 System.out.println("Reservation: Day " + reservation.getCheckIn() + " to " + reservation.getCheckOut());
@@ -389,7 +1050,7 @@ public class Property {
         
         // Show reservations that overlap with this range
         boolean foundReservations = false;
-        for (Reservation reservation : reservations) {
+        for (Reservation reservation : reservations()) {
             if (reservation.getCheckIn() <= endDay && reservation.getCheckOut() >= startDay) {
                 if (!foundReservations) {
                     System.out.println("\nOVERLAPPING RESERVATIONS:");
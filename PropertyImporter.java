@@ -0,0 +1,325 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * PropertyImporter.java
+ *
+ * Streams property listings and their available dates into the SystemManager.
+ * Each line describes one property:
+ *
+ *     name,basePrice,day[,day...]
+ *
+ *  - name may be wrapped in double quotes if it contains commas ("" for a quote)
+ *  - basePrice may be left blank to use the default PHP 1,500.00; otherwise it must
+ *    be PHP 100.00 - 999,999.00, the same range the console accepts
+ *  - each day is a number (1-30) or a range like 5-10
+ *  - blank lines and lines starting with # are skipped
+ *
+ * Input is read through one reusable buffer and parsed by hand (no regex, no split),
+ * and properties are added to the SystemManager in batches, so memory stays constant
+ * no matter how large the file is. Invalid lines are reported and skipped.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class PropertyImporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private SystemManager manager;
+    private char[] buffer;
+    private int bufferLength;
+    private int bufferPos;
+
+    private char[] line;       // current line, reused for every line
+    private int lineLength;
+    private int pos;           // parse position inside line
+    private StringBuilder field;
+
+    private ArrayList<Property> batch;
+    private HashSet<String> batchNames;
+    private int lineNumber;
+    private int importedCount;
+    private int rejectedCount;
+
+    /**
+     * Creates an importer that adds properties to the given manager.
+     * @param manager the system manager receiving the properties
+     */
+    public PropertyImporter(SystemManager manager) {
+        this.manager = manager;
+        this.buffer = new char[BUFFER_SIZE];
+        this.line = new char[256];
+        this.field = new StringBuilder();
+        this.batch = new ArrayList<>(BATCH_SIZE);
+        this.batchNames = new HashSet<>();
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of properties imported so far.
+     * @return imported property count
+     */
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    /**
+     * Gets the number of lines rejected so far.
+     * @return rejected line count
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    // -------------------------------------------------------
+    // Import
+    // -------------------------------------------------------
+
+    /**
+     * Reads every line from the input and imports the valid ones.
+     * The reader is not closed.
+     * @param in source of property lines
+     * @throws IOException if reading fails
+     */
+    public void importFrom(Reader in) throws IOException {
+        bufferLength = 0;
+        bufferPos = 0;
+        while (readLine(in)) {
+            lineNumber++;
+            String error = parseLine();
+            if (error != null) {
+                rejectedCount++;
+                if (rejectedCount <= MAX_REPORTED_ERRORS) {
+                    System.out.println("[ERROR] Line " + lineNumber + ": " + error);
+                } else if (rejectedCount == MAX_REPORTED_ERRORS + 1) {
+                    System.out.println("[ERROR] Too many invalid lines, further errors are only counted.");
+                }
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                flushBatch();
+            }
+        }
+        flushBatch();
+    }
+
+    /**
+     * Copies the next line from the buffer into the line array.
+     * @return false if the input is exhausted
+     */
+    private boolean readLine(Reader in) throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (bufferPos == bufferLength) {
+                bufferLength = in.read(buffer, 0, buffer.length);
+                bufferPos = 0;
+                if (bufferLength <= 0) {
+                    bufferLength = 0;
+                    return readAny;
+                }
+            }
+            readAny = true;
+            char c = buffer[bufferPos++];
+            if (c == '\n') {
+                break;
+            }
+            if (lineLength == line.length) {
+                char[] bigger = new char[line.length * 2];
+                System.arraycopy(line, 0, bigger, 0, lineLength);
+                line = bigger;
+            }
+            line[lineLength++] = c;
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the current line and adds the property to the batch.
+     * @return error message, or null if the line was accepted or skipped
+     */
+    private String parseLine() {
+        pos = 0;
+        skipSpaces();
+        if (pos == lineLength || line[pos] == '#') {
+            return null;
+        }
+
+        // name
+        String nameError = readName();
+        if (nameError != null) {
+            return nameError;
+        }
+        if (field.length() == 0) {
+            return "Property name cannot be blank.";
+        }
+        if (pos == lineLength) {
+            return "Missing base price and dates.";
+        }
+        pos++; // skip ','
+        String name = field.toString();
+        String key = SystemManager.nameKey(name);
+        if (manager.hasProperty(name) || batchNames.contains(key)) {
+            return "Property name must be unique. '" + name + "' already exists.";
+        }
+
+        // base price (blank = default)
+        skipSpaces();
+        long basePrice = Money.ofPesos(1500);
+        if (pos < lineLength && line[pos] != ',') {
+            int start = pos;
+            while (pos < lineLength && line[pos] != ',' && line[pos] != ' ' && line[pos] != '\t') {
+                pos++;
+            }
+            basePrice = Money.parse(line, start, pos);
+            if (basePrice < 0) {
+                return "Invalid base price.";
+            }
+            if (basePrice < Money.ofPesos(100) || basePrice > Money.ofPesos(999999)) {
+                return "Base price must be between PHP 100.00 and PHP 999,999.00.";
+            }
+        }
+        skipSpaces();
+        if (pos == lineLength) {
+            return "Property must have at least one date.";
+        }
+        if (line[pos] != ',') {
+            return "Invalid base price.";
+        }
+        pos++;
+
+        // days, collected as a bitmask so duplicates are caught without extra objects
+        int days = 0;
+        while (true) {
+            skipSpaces();
+            int from = readNumber();
+            if (from < 1 || from > 30) {
+                return "Invalid day number. Must be between 1-30.";
+            }
+            int to = from;
+            skipSpaces();
+            if (pos < lineLength && line[pos] == '-') {
+                pos++;
+                skipSpaces();
+                to = readNumber();
+                if (to < from || to > 30) {
+                    return "Invalid day range " + from + "-" + (to < 0 ? "?" : String.valueOf(to)) + ".";
+                }
+                skipSpaces();
+            }
+            for (int day = from; day <= to; day++) {
+                int bit = 1 << day;
+                if ((days & bit) != 0) {
+                    return "Day " + day + " is listed more than once.";
+                }
+                days |= bit;
+            }
+            if (pos == lineLength) {
+                break;
+            }
+            if (line[pos] != ',') {
+                return "Unexpected character '" + line[pos] + "'.";
+            }
+            pos++;
+        }
+
+        Property prop = new Property(name, basePrice);
+        for (int day = 1; day <= 30; day++) {
+            if ((days & (1 << day)) != 0) {
+                prop.importDate(day);
+            }
+        }
+        batch.add(prop);
+        batchNames.add(key);
+        return null;
+    }
+
+    /**
+     * Reads the name field (quoted or plain) into the reusable field builder.
+     * Leaves pos on the ',' after the name, or at the end of the line.
+     * @return error message, or null if the name was read
+     */
+    private String readName() {
+        field.setLength(0);
+        if (line[pos] == '"') {
+            pos++;
+            while (true) {
+                if (pos == lineLength) {
+                    return "Unterminated quoted name.";
+                }
+                char c = line[pos++];
+                if (c == '"') {
+                    if (pos < lineLength && line[pos] == '"') {
+                        field.append('"');
+                        pos++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    field.append(c);
+                }
+            }
+            skipSpaces();
+            if (pos < lineLength && line[pos] != ',') {
+                return "Unexpected text after quoted name.";
+            }
+        } else {
+            while (pos < lineLength && line[pos] != ',') {
+                field.append(line[pos++]);
+            }
+        }
+        // trim trailing spaces, same as the console trims names
+        int end = field.length();
+        while (end > 0 && field.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        field.setLength(end);
+        return null;
+    }
+
+    /**
+     * Reads a small non-negative integer.
+     * @return the number, or -1 if there are no digits
+     */
+    private int readNumber() {
+        int value = 0;
+        int digits = 0;
+        while (pos < lineLength && line[pos] >= '0' && line[pos] <= '9') {
+            if (++digits > 3) {
+                return -1;
+            }
+            value = value * 10 + (line[pos++] - '0');
+        }
+        return digits == 0 ? -1 : value;
+    }
+
+    /**
+     * Moves pos past spaces and tabs.
+     */
+    private void skipSpaces() {
+        while (pos < lineLength && (line[pos] == ' ' || line[pos] == '\t')) {
+            pos++;
+        }
+    }
+
+    /**
+     * Adds the pending batch to the manager and clears it.
+     */
+    private void flushBatch() {
+        if (!batch.isEmpty()) {
+            importedCount += manager.addProperties(batch);
+            batch.clear();
+            batchNames.clear();
+        }
+    }
+}
@@ -0,0 +1,422 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * PropertyPager.java
+ *
+ * Keeps at most a fixed number of property calendars (dates and reservations)
+ * in memory. Every property keeps a small handle in memory (name, prices, rules
+ * and summary counters, see Property), but the calendars of cold properties are
+ * written to a local spill file and loaded back the first time they are used.
+ *
+ * Which calendar to page out is chosen with the CLOCK policy: using a calendar
+ * only sets a flag on the property (no lock, no list update), and the eviction
+ * sweep passes over the resident properties, clearing flags and paging out the
+ * first one whose flag was already clear. Recently used properties therefore
+ * stay in memory, and the booking path pays nothing for the bookkeeping.
+ *
+ * Eviction runs on a background thread when a load goes over the budget, and
+ * directly at points where no property lock is held (e.g. after an import batch),
+ * so startup and heap size follow the hot set rather than the whole portfolio.
+ *
+ * Each property owns one slot in the spill file, sized to a power of two. A changed
+ * calendar that still fits is written over its old copy; one that has outgrown its
+ * slot moves to a free slot of the next size (or the end of the file) and its old
+ * slot goes on a free list for that size. Removed properties give their slot back
+ * too, so the file stays about as large as the portfolio's calendars, however often
+ * listings change.
+ *
+ * Calendar histories (see CalendarHistory) are not paged: once a property has a
+ * history, every past version stays in memory for the life of the process, so
+ * heavy listing churn still grows the heap even when the calendars are on disk.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class PropertyPager {
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static final int MIN_SLOT_SIZE = 64;
+
+    private int maxResident;
+    private Property[] resident;      // properties whose calendar is in memory
+    private int residentCount;
+    private int hand;                 // clock hand into resident
+    private boolean evictRequested;
+    private long loadCount;
+    private long evictionCount;
+
+    private final Object evictLock = new Object();
+    private final Object storeLock = new Object();
+    private Path storePath;
+    private FileChannel store;        // created on the first page-out
+    private ByteBuffer pending;       // calendars not yet written to the file
+    private long flushedEnd;          // file offset where pending starts
+    private long storeEnd;            // offset of the next calendar
+    private long[][] freeSlots = new long[32][];   // free slot offsets, by log2 of the slot size
+    private int[] freeCounts = new int[32];
+    private boolean storeFailed;
+
+    /**
+     * Creates a pager and starts its background eviction thread.
+     * @param maxResident most property calendars kept in memory
+     */
+    public PropertyPager(int maxResident) {
+        this.maxResident = Math.max(1, maxResident);
+        this.resident = new Property[Math.min(this.maxResident + 1, 1024)];
+
+        Thread evictor = new Thread(this::evictLoop, "property-pager");
+        evictor.setDaemon(true);
+        evictor.start();
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the most property calendars kept in memory.
+     * @return memory budget in properties
+     */
+    public int getMaxResident() {
+        return maxResident;
+    }
+
+    /**
+     * Gets the number of property calendars currently in memory.
+     * @return resident count
+     */
+    public synchronized int getResidentCount() {
+        return residentCount;
+    }
+
+    /**
+     * Gets how many calendars were loaded back from disk.
+     * @return load count
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Gets how many calendars were paged out to disk.
+     * @return eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the size of the spill file, including calendars still in the write buffer.
+     * @return size in bytes
+     */
+    public long getSpillFileSize() {
+        synchronized (storeLock) {
+            return storeEnd;
+        }
+    }
+
+    // -------------------------------------------------------
+    // Registration
+    // -------------------------------------------------------
+
+    /**
+     * Starts managing a property whose calendar is currently in memory.
+     * @param prop the property
+     */
+    public void register(Property prop) {
+        prop.setPager(this);
+        synchronized (this) {
+            addResident(prop);
+        }
+    }
+
+    /**
+     * Stops managing a property (e.g. when it is removed). Its calendar is
+     * loaded back so the object stays usable, and its spill slot is freed.
+     * @param prop the property
+     */
+    public void unregister(Property prop) {
+        prop.setPager(null);
+        synchronized (this) {
+            removeResident(prop);
+        }
+    }
+
+    /**
+     * Called by Property, while holding its lock, after its calendar was loaded.
+     */
+    synchronized void pagedIn(Property prop) {
+        loadCount++;
+        addResident(prop);
+    }
+
+    /**
+     * Called by Property, while holding its lock, after its calendar was written out.
+     */
+    synchronized void pagedOut(Property prop) {
+        removeResident(prop);
+        evictionCount++;
+    }
+
+    private void addResident(Property prop) {
+        if (prop.residentSlot >= 0) {
+            return;
+        }
+        if (residentCount == resident.length) {
+            Property[] bigger = new Property[resident.length * 2];
+            System.arraycopy(resident, 0, bigger, 0, residentCount);
+            resident = bigger;
+        }
+        prop.residentSlot = residentCount;
+        resident[residentCount++] = prop;
+        if (residentCount > maxResident && !evictRequested) {
+            evictRequested = true;
+            notifyAll();
+        }
+    }
+
+    private void removeResident(Property prop) {
+        int slot = prop.residentSlot;
+        if (slot < 0) {
+            return;
+        }
+        Property last = resident[--residentCount];
+        resident[slot] = last;
+        last.residentSlot = slot;
+        resident[residentCount] = null;
+        prop.residentSlot = -1;
+    }
+
+    // -------------------------------------------------------
+    // Eviction
+    // -------------------------------------------------------
+
+    /**
+     * Pages out cold calendars until the budget is met. Must not be called
+     * while holding a property lock.
+     */
+    public void evictOverBudget() {
+        synchronized (evictLock) {
+            int refused = 0;
+            while (true) {
+                Property victim;
+                synchronized (this) {
+                    if (residentCount <= maxResident || refused > residentCount) {
+                        return;
+                    }
+                    victim = nextVictim();
+                }
+                if (!victim.pageOut()) {
+                    refused++;   // held nights, waiting guests or no disk space
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the clock hand to the first property not used since the last sweep.
+     */
+    private Property nextVictim() {
+        for (int step = 0; step < 2 * residentCount; step++) {
+            if (hand >= residentCount) {
+                hand = 0;
+            }
+            Property prop = resident[hand++];
+            if (!prop.referenced) {
+                return prop;
+            }
+            prop.referenced = false;
+        }
+        if (hand >= residentCount) {
+            hand = 0;
+        }
+        return resident[hand++];
+    }
+
+    private void evictLoop() {
+        while (true) {
+            synchronized (this) {
+                while (!evictRequested) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                evictRequested = false;
+            }
+            evictOverBudget();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Spill file
+    // -------------------------------------------------------
+
+    /**
+     * Gets the slot size for a calendar: the next power of two, at least MIN_SLOT_SIZE.
+     * @param length calendar size in bytes
+     * @return slot size in bytes
+     */
+    static int slotSize(int length) {
+        return Math.max(MIN_SLOT_SIZE, Integer.highestOneBit(Math.max(1, length - 1)) << 1);
+    }
+
+    /**
+     * Saves a paged-out calendar in the spill file. If it fits in the property's
+     * current slot, the old copy is overwritten; otherwise it goes to a free slot of
+     * its size (or a new one at the end) and the old slot is freed.
+     * New slots are collected in a write buffer first, so paging out many at once
+     * (e.g. during an import) costs one disk write per WRITE_BUFFER_SIZE bytes
+     * rather than one per property.
+     * @param data the calendar bytes
+     * @param offset the property's current slot, or -1 if it has none
+     * @param capacity size of the current slot
+     * @return offset of the slot that now holds the calendar, or -1 if it could not be written
+     */
+    long write(byte[] data, long offset, int capacity) {
+        synchronized (storeLock) {
+            if (storeFailed) {
+                return -1;
+            }
+            try {
+                if (store == null) {
+                    storePath = Files.createTempFile("gpe-pages", ".dat");
+                    storePath.toFile().deleteOnExit();
+                    store = FileChannel.open(storePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    pending = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                }
+                if (offset >= 0 && data.length <= capacity) {
+                    writeAt(data, offset);
+                    return offset;
+                }
+                int size = slotSize(data.length);
+                int sizeClass = Integer.numberOfTrailingZeros(size);
+                long slot;
+                if (freeCounts[sizeClass] > 0) {
+                    slot = freeSlots[sizeClass][--freeCounts[sizeClass]];
+                    writeAt(data, slot);
+                } else {
+                    slot = append(data, size);
+                }
+                if (offset >= 0) {
+                    addFree(offset, capacity);
+                }
+                return slot;
+            } catch (IOException e) {
+                storeFailed = true;
+                System.out.println("[ERROR] Could not page property calendars to disk: " + e.getMessage()
+                        + ". All calendars will stay in memory.");
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Gives a slot back, e.g. when its property is removed.
+     * @param offset slot offset
+     * @param capacity slot size
+     */
+    void free(long offset, int capacity) {
+        synchronized (storeLock) {
+            addFree(offset, capacity);
+        }
+    }
+
+    private void addFree(long offset, int capacity) {
+        int sizeClass = Integer.numberOfTrailingZeros(capacity);
+        long[] stack = freeSlots[sizeClass];
+        if (stack == null) {
+            stack = new long[16];
+        } else if (freeCounts[sizeClass] == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        freeSlots[sizeClass] = stack;
+        stack[freeCounts[sizeClass]++] = offset;
+    }
+
+    /**
+     * Adds a new slot at the end of the file.
+     */
+    private long append(byte[] data, int size) throws IOException {
+        if (size > pending.remaining()) {
+            flushPending();
+        }
+        long offset = storeEnd;
+        if (size > pending.remaining()) {
+            writeFully(ByteBuffer.wrap(data), offset);
+            flushedEnd = offset + size;
+        } else {
+            pending.put(data);
+            pending.position(pending.position() + size - data.length);
+        }
+        storeEnd += size;
+        return offset;
+    }
+
+    /**
+     * Overwrites a slot, in the write buffer if it has not been written to the file yet.
+     */
+    private void writeAt(byte[] data, long offset) throws IOException {
+        if (offset >= flushedEnd) {
+            System.arraycopy(data, 0, pending.array(), (int) (offset - flushedEnd), data.length);
+        } else {
+            writeFully(ByteBuffer.wrap(data), offset);
+        }
+    }
+
+    /**
+     * Reads a paged-out calendar back from the spill file (or the write buffer,
+     * if it has not been written to the file yet).
+     * @param offset where it was written
+     * @param length its size in bytes
+     * @return the calendar bytes
+     * @throws IOException if the file cannot be read
+     */
+    byte[] read(long offset, int length) throws IOException {
+        byte[] data = new byte[length];
+        synchronized (storeLock) {
+            if (offset >= flushedEnd) {
+                System.arraycopy(pending.array(), (int) (offset - flushedEnd), data, 0, length);
+                return data;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (store.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("spill file is shorter than expected");
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Writes the write buffer to the end of the file. On failure the buffer
+     * is kept, so calendars in it can still be read.
+     */
+    private void flushPending() throws IOException {
+        pending.flip();
+        try {
+            writeFully(pending, flushedEnd);
+        } catch (IOException e) {
+            pending.position(pending.limit());
+            pending.limit(pending.capacity());
+            throw e;
+        }
+        flushedEnd = storeEnd;
+        pending.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        long start = offset - buffer.position();
+        while (buffer.hasRemaining()) {
+            store.write(buffer, start + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * PropertyTable.java
+ *
+ * Slot storage for the portfolio. A property gets a slot when it is added and
+ * keeps it until it is removed, so its slot number is a stable handle. Removing
+ * a property only clears its slot and puts the slot on a free list, which the
+ * next add takes first; nothing is searched or shifted, so adding and removing
+ * are O(1) no matter how many properties are listed or how often they churn,
+ * and handles of other properties stay valid.
+ *
+ * Because freed slots are reused, the number of slots never exceeds the largest
+ * number of properties listed at one time.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class PropertyTable {
+    private Property[] slots;
+    private int[] freeSlots;     // stack of cleared slots
+    private int freeCount;
+    private int slotCount;       // slots handed out so far
+    private int size;
+
+    /**
+     * Creates an empty table.
+     */
+    public PropertyTable() {
+        slots = new Property[16];
+        freeSlots = new int[16];
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of properties in the table.
+     * @return property count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the table has no properties.
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of slots handed out so far (used and free).
+     * Valid handles are 0 to getSlotCount() - 1.
+     * @return slot count
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the property in a slot.
+     * @param handle slot number
+     * @return the property, or null if the slot is free
+     */
+    public Property get(int handle) {
+        return handle >= 0 && handle < slotCount ? slots[handle] : null;
+    }
+
+    // -------------------------------------------------------
+    // Adding and removing
+    // -------------------------------------------------------
+
+    /**
+     * Makes room for more properties without growing one by one.
+     * @param capacity number of properties to make room for
+     */
+    public void ensureCapacity(int capacity) {
+        int needed = slotCount + Math.max(0, capacity - size - freeCount);
+        if (needed > slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(needed, slots.length * 2));
+        }
+    }
+
+    /**
+     * Adds a property, reusing a free slot if there is one.
+     * @param property the property (must not be in a table already)
+     * @return the property's slot number
+     */
+    public int add(Property property) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeSlots[--freeCount];
+        } else {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            handle = slotCount++;
+        }
+        slots[handle] = property;
+        property.tableSlot = handle;
+        size++;
+        return handle;
+    }
+
+    /**
+     * Removes a property and puts its slot on the free list.
+     * @param property the property
+     * @return true if it was in this table
+     */
+    public boolean remove(Property property) {
+        int handle = property.tableSlot;
+        if (handle < 0 || handle >= slotCount || slots[handle] != property) {
+            return false;
+        }
+        slots[handle] = null;
+        property.tableSlot = -1;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = handle;
+        size--;
+        return true;
+    }
+
+    // -------------------------------------------------------
+    // Reading
+    // -------------------------------------------------------
+
+    /**
+     * Copies the properties into a list, in slot order.
+     * Used to hand a fixed view of the portfolio to searches, checks and exports.
+     * @return the properties
+     */
+    public ArrayList<Property> toList() {
+        ArrayList<Property> list = new ArrayList<>(size);
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i] != null) {
+                list.add(slots[i]);
+            }
+        }
+        return list;
+    }
+}
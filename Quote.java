@@ -0,0 +1,52 @@
+/**
+ * Quote.java
+ *
+ * The answer to "can I book these nights, and for how much?" for one property,
+ * computed without creating a Reservation. Quotes never change after they are made,
+ * so they can be shared through QuoteCache.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class Quote {
+    private long version;
+    private boolean available;
+    private long totalPrice;
+
+    /**
+     * Constructs a new Quote.
+     * @param version     Property calendar version the quote was computed from
+     * @param available   If all nights can be booked
+     * @param totalPrice  Total price in centavos (0 if not available)
+     */
+    public Quote(long version, boolean available, long totalPrice) {
+        this.version = version;
+        this.available = available;
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Gets the calendar version the quote was computed from.
+     * @return Property version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the stay can be booked.
+     * @return true if all nights are available
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the total price of the stay.
+     * @return Total price in centavos
+     */
+    public long getTotalPrice() {
+        return totalPrice;
+    }
+}
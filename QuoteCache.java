@@ -0,0 +1,255 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QuoteCache.java
+ *
+ * Bounded, thread-safe LRU cache of stay quotes.
+ * Entries are keyed by property id, property version and stay range. Any booking,
+ * hold, date or price change gives the property a new version, so its old quotes are
+ * never returned again. Each segment also indexes its keys by property, and the first
+ * quote stored for a newer version drops every quote of the older one, so stale
+ * quotes do not take room from live ones; quotes of other properties are not affected.
+ *
+ * The cache is split into segments, each an access-ordered LinkedHashMap with its own
+ * lock. All quotes of one property share a segment, so its invalidation touches one
+ * lock, and lookups for different properties rarely wait on each other. Hits and
+ * misses are counted so the size can be tuned from the hit rate.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class QuoteCache {
+    private static final int SEGMENT_COUNT = 16;
+
+    private Segment[] segments;
+    private LongAdder hits;
+    private LongAdder misses;
+
+    /**
+     * Creates a quote cache.
+     * @param maxEntries maximum number of cached quotes
+     */
+    public QuoteCache(int maxEntries) {
+        int perSegment = Math.max(1, maxEntries / SEGMENT_COUNT);
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    // -------------------------------------------------------
+    // Core Methods
+    // -------------------------------------------------------
+
+    /**
+     * Gets the quote for a stay, computing it only if the property changed
+     * since it was last quoted for the same nights.
+     * @param property property to quote
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return the quote
+     */
+    public Quote quote(Property property, int checkIn, int checkOut) {
+        Key key = new Key(property.getId(), property.getVersion(), checkIn, checkOut);
+        Segment segment = segmentFor(key.propertyId);
+        Quote cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Quote fresh = property.quote(checkIn, checkOut);
+        // store under the version the quote was really computed from
+        Key freshKey = fresh.getVersion() == key.version ? key
+                : new Key(key.propertyId, fresh.getVersion(), checkIn, checkOut);
+        synchronized (segment) {
+            segment.store(freshKey, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Drops every cached quote of a property (e.g. when it is removed).
+     * @param property the property
+     */
+    public void invalidate(Property property) {
+        Segment segment = segmentFor(property.getId());
+        synchronized (segment) {
+            segment.dropProperty(property.getId());
+        }
+    }
+
+    // -------------------------------------------------------
+    // Metrics
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of cached quotes.
+     * @return entry count
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     * @return hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to compute the quote.
+     * @return miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     * @return hit rate between 0 and 1 (0 if nothing was looked up yet)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private Segment segmentFor(long propertyId) {
+        int h = Long.hashCode(propertyId * 0x9E3779B97F4A7C15L);
+        return segments[(h ^ (h >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    // -------------------------------------------------------
+    // Internals
+    // -------------------------------------------------------
+
+    /**
+     * One LRU segment with its keys indexed by property; callers synchronize on it.
+     */
+    private static class Segment extends LinkedHashMap<Key, Quote> {
+        private static final long serialVersionUID = 1L;
+        private int maxEntries;
+        private HashMap<Long, PropertyKeys> byProperty;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.byProperty = new HashMap<>();
+        }
+
+        /**
+         * Stores a quote. A quote for a newer version first drops all quotes of
+         * the property's older version; a quote for an older version is not stored.
+         */
+        void store(Key key, Quote quote) {
+            PropertyKeys keys = byProperty.get(key.propertyId);
+            if (keys != null && keys.version > key.version) {
+                return;
+            }
+            if (keys != null && keys.version < key.version) {
+                dropProperty(key.propertyId);
+                keys = null;
+            }
+            if (keys == null) {
+                keys = new PropertyKeys(key.version);
+                byProperty.put(key.propertyId, keys);
+            }
+            if (put(key, quote) == null) {
+                keys.keys.add(key);
+            }
+        }
+
+        /**
+         * Removes every quote of a property.
+         */
+        void dropProperty(long propertyId) {
+            PropertyKeys keys = byProperty.remove(propertyId);
+            if (keys != null) {
+                for (Key key : keys.keys) {
+                    remove(key);
+                }
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Quote> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            Key key = eldest.getKey();
+            PropertyKeys keys = byProperty.get(key.propertyId);
+            if (keys != null && keys.keys.remove(key) && keys.keys.isEmpty()) {
+                byProperty.remove(key.propertyId);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The cached keys of one property, all for the same version.
+     */
+    private static class PropertyKeys {
+        private long version;
+        private ArrayList<Key> keys;
+
+        PropertyKeys(long version) {
+            this.version = version;
+            this.keys = new ArrayList<>(4);
+        }
+    }
+
+    /**
+     * Cache key: property id, property version and stay range.
+     */
+    private static class Key {
+        private long propertyId;
+        private long version;
+        private int checkIn;
+        private int checkOut;
+
+        Key(long propertyId, long version, int checkIn, int checkOut) {
+            this.propertyId = propertyId;
+            this.version = version;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return propertyId == other.propertyId && version == other.version
+                    && checkIn == other.checkIn && checkOut == other.checkOut;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = propertyId * 31 + version;
+            h = h * 31 + checkIn;
+            h = h * 31 + checkOut;
+            return Long.hashCode(h * 0x9E3779B97F4A7C15L);
+        }
+    }
+}
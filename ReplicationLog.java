@@ -0,0 +1,322 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * ReplicationLog.java
+ *
+ * Ships every change to properties and bookings, in order, to a log file
+ * that a warm standby (see StandbyFollower) reads and applies.
+ *
+ * Each change is one text line:
+ *   sequence TAB time TAB type TAB field TAB field ...
+ * Sequence numbers start at 1 and have no gaps, so the standby can tell
+ * if it missed anything. Tabs, newlines and backslashes inside names are escaped.
+ *
+ * Records are appended by the thread that made the change, while it still holds
+ * the property's lock, so the log order matches the order the changes happened.
+ * Appending only adds the line to an in-memory buffer. A background thread swaps
+ * in an empty buffer every FLUSH_INTERVAL_MILLIS (or sooner once FLUSH_THRESHOLD
+ * characters are waiting) and writes the full one to the file outside the buffer's
+ * lock, so bookings never wait for the disk and the standby is never more than
+ * that (plus its own poll interval) behind.
+ *
+ * Holds and waitlists are not shipped: they only matter to the guests
+ * currently talking to the primary.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class ReplicationLog implements Closeable {
+    /** First line of every log file. */
+    static final String HEADER = "#GPE-REPLICATION 1";
+
+    /** How often buffered records are written to the file. */
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+
+    /** Buffered characters that wake the flusher before its interval is up. */
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    // record types
+    static final String CREATE = "CREATE";
+    static final String REMOVE = "REMOVE";
+    static final String RENAME = "RENAME";
+    static final String PRICE = "PRICE";
+    static final String ADD_DATE = "ADD_DATE";
+    static final String REMOVE_DATE = "REMOVE_DATE";
+    static final String BOOK = "BOOK";
+    static final String CANCEL = "CANCEL";
+    static final String RULES = "RULES";
+
+    private String path;
+    private Writer out;              // only used while holding writeLock
+    private char[] chunk;
+    private StringBuilder buffer;    // records not yet handed to the flusher
+    private StringBuilder spare;     // the other buffer, empty, reused on the next swap
+    private long sequence;
+    private boolean failed;
+    private boolean closed;
+    private final Object writeLock = new Object();
+    private Thread flusher;
+
+    /**
+     * Starts a new log, replacing any old file at the path.
+     * @param path log file path
+     * @throws IOException if the file cannot be created
+     */
+    public ReplicationLog(String path) throws IOException {
+        this.path = path;
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        out.write(HEADER);
+        out.write('\n');
+        out.flush();
+        chunk = new char[8 * 1024];
+        buffer = new StringBuilder(FLUSH_THRESHOLD);
+        spare = new StringBuilder(FLUSH_THRESHOLD);
+
+        flusher = new Thread(this::flushLoop, "replication-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the log file path.
+     * @return path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the sequence number of the last record written.
+     * @return last sequence number (0 if nothing was written yet)
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    // -------------------------------------------------------
+    // Records (called by Property while it holds its lock)
+    // -------------------------------------------------------
+
+    /**
+     * Records a property with its current dates, reservations and rules.
+     * @param prop the property (its lock must be held)
+     */
+    void propertyCreated(Property prop) {
+        StringBuilder days = new StringBuilder();
+        for (Date date : prop.getDates()) {
+            if (days.length() > 0) {
+                days.append(',');
+            }
+            days.append(date.getDayNumber());
+        }
+        append(CREATE, prop.getName(), Long.toString(prop.getBasePrice()), days.toString());
+        for (Reservation r : prop.getReservations()) {
+            booked(prop.getName(), r);
+        }
+        if (prop.getStayRules() != StayRules.NONE) {
+            rulesChanged(prop.getName(), prop.getStayRules());
+        }
+    }
+
+    void propertyRemoved(String name) {
+        append(REMOVE, name);
+    }
+
+    void renamed(String oldName, String newName) {
+        append(RENAME, oldName, newName);
+    }
+
+    void priceChanged(String name, long basePrice) {
+        append(PRICE, name, Long.toString(basePrice));
+    }
+
+    void dateAdded(String name, int dayNumber) {
+        append(ADD_DATE, name, Integer.toString(dayNumber));
+    }
+
+    void dateRemoved(String name, int dayNumber) {
+        append(REMOVE_DATE, name, Integer.toString(dayNumber));
+    }
+
+    void booked(String name, Reservation r) {
+        append(BOOK, name, r.getGuestName(), Integer.toString(r.getCheckIn()), Integer.toString(r.getCheckOut()));
+    }
+
+    void cancelled(String name, Reservation r) {
+        append(CANCEL, name, r.getGuestName(), Integer.toString(r.getCheckIn()), Integer.toString(r.getCheckOut()));
+    }
+
+    void rulesChanged(String name, StayRules rules) {
+        append(RULES, name, Integer.toString(rules.getMinNights()), Integer.toString(rules.getMaxNights()),
+                Integer.toString(rules.getNoCheckInMask()), rules.isPreventGaps() ? "1" : "0");
+    }
+
+    /**
+     * Adds one record to the buffer; never touches the file. After a write
+     * error the log stops taking records, but the change itself never fails.
+     */
+    private synchronized void append(String type, String... fields) {
+        if (failed || closed) {
+            return;
+        }
+        sequence++;
+        buffer.append(sequence).append('\t').append(System.currentTimeMillis()).append('\t').append(type);
+        for (String field : fields) {
+            buffer.append('\t');
+            escape(field, buffer);
+        }
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            notifyAll();   // wake the flusher early
+        }
+    }
+
+    // -------------------------------------------------------
+    // Flushing
+    // -------------------------------------------------------
+
+    /**
+     * Writes buffered records to the file now. The buffers are swapped under the
+     * log's lock, and the full one is written while holding only writeLock,
+     * so appends carry on while the disk write is in progress.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            StringBuilder full;
+            synchronized (this) {
+                if (buffer.length() == 0 || failed) {
+                    return;
+                }
+                full = buffer;
+                buffer = spare;
+                spare = null;
+            }
+            try {
+                for (int start = 0; start < full.length(); start += chunk.length) {
+                    int end = Math.min(full.length(), start + chunk.length);
+                    full.getChars(start, end, chunk, 0);
+                    out.write(chunk, 0, end - start);
+                }
+                out.flush();
+            } catch (IOException e) {
+                fail(e);
+            } finally {
+                full.setLength(0);
+                synchronized (this) {
+                    spare = full;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes the remaining records and closes the file.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        // the flusher is woken, not interrupted: an interrupt would close the
+        // channel in the middle of a write
+        flush();
+        synchronized (writeLock) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.length() < FLUSH_THRESHOLD) {
+                    try {
+                        wait(FLUSH_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            flush();
+        }
+    }
+
+    private synchronized void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.out.println("[ERROR] Replication log '" + path + "' stopped: " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------
+    // Line format
+    // -------------------------------------------------------
+
+    private static void escape(String field, StringBuilder sb) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Splits a record line into its fields and undoes the escaping.
+     * @param line one line of the log, without the line break
+     * @return fields: sequence, time, type, then the type's own fields
+     */
+    static ArrayList<String> parse(String line) {
+        ArrayList<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-
 /**
  * Reservation.java
  *
@@ -7,8 +5,8 @@ import java.util.ArrayList;
  * Each reservation stores:
  *  - The guest's name
  *  - Check-in and check-out dates
- *  - Total price
- *  - Nightly price breakdown
+ *  - Total price (in centavos)
+ *  - Nightly price breakdown (in centavos)
  *
  * MCO1 - Green Property Exchange
  * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
@@ -19,8 +17,8 @@ public class Reservation {
     private String guestName;
     private int checkIn;      // inclusive
     private int checkOut;     // exclusive
-    private double totalPrice;
-    private ArrayList<Double> breakdown; // nightly price list
+    private long totalPrice;
+    private long[] breakdown; // nightly price list
 
     /**
      * Constructs a new Reservation.
@@ -32,7 +30,7 @@ public class Reservation {
         this.guestName = guestName;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
-        this.breakdown = new ArrayList<>();
+        this.breakdown = new long[0];
         this.totalPrice = 0;
     }
 
@@ -66,17 +64,17 @@ public class Reservation {
 
     /**
      * Gets the total price of the reservation.
-     * @return Total price of reservation
+     * @return Total price of reservation in centavos
      */
-    public double getTotalPrice() {
+    public long getTotalPrice() {
         return totalPrice;
     }
 
     /**
      * Gets the nightly price breakdown.
-     * @return List of nightly prices
+     * @return Nightly prices in centavos
      */
-    public ArrayList<Double> getBreakdown() {
+    public long[] getBreakdown() {
         return breakdown;
     }
 
@@ -85,19 +83,19 @@ public class Reservation {
     // -------------------------------------------------------
 
     /**
-     * Calculates total price based on nightly rate from property's available dates.
-     * @param dates The list of all property dates
+     * Calculates total price based on the nightly rates of a property.
+     * @param property The property being booked
      */
-    public void calculateTotal(ArrayList<Date> dates) {
-        totalPrice = 0;
-        breakdown.clear();
-
-        for (Date d : dates) {
-            if (d.getDayNumber() >= checkIn && d.getDayNumber() < checkOut) {
-                totalPrice += d.getPricePerNight();
-                breakdown.add(d.getPricePerNight());
+    public void calculateTotal(Property property) {
+        long[] nightly = new long[checkOut - checkIn];
+        for (int day = checkIn; day < checkOut; day++) {
+            Date date = property.findDate(day);
+            if (date != null) {
+                nightly[day - checkIn] = date.getPricePerNight();
             }
         }
+        breakdown = nightly;
+        totalPrice = Money.sum(breakdown);
     }
 
     /**
@@ -110,11 +108,11 @@ public class Reservation {
         System.out.println("Check-in Day: " + checkIn);
         System.out.println("Check-out Day: " + checkOut);
         System.out.println("Total Nights: " + (checkOut - checkIn));
-        System.out.println("Total Price: PHP " + String.format("%.2f", totalPrice));
+        System.out.println("Total Price: PHP " + Money.format(totalPrice));
 
         System.out.println("\nPRICE BREAKDOWN:");
-        for (int i = 0; i < breakdown.size(); i++) {
-            System.out.printf("   Day %2d: PHP %8.2f%n", (checkIn + i), breakdown.get(i));
+        for (int i = 0; i < breakdown.length; i++) {
+            System.out.printf("   Day %2d: PHP %8s%n", (checkIn + i), Money.format(breakdown[i]));
         }
         System.out.println("-----------------------------------");
     }
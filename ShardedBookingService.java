@@ -0,0 +1,234 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ShardedBookingService.java
+ *
+ * Splits the portfolio into shards by the hash of each property's
+ * (case-insensitive) name. Each shard is owned by one worker thread that takes
+ * commands from a lock-free queue, and every change to a property's calendar,
+ * prices or rules (bookings, holds, cancellations, waitlist fills, date and
+ * price changes) runs as a command on the thread that owns it. Bookings on
+ * different shards therefore run in parallel, and a property's state only ever
+ * has one writer.
+ *
+ * Property keeps its own monitor so readers (views, exports, searches and the
+ * pager) see a consistent calendar; since only the owner thread writes, that
+ * lock is never contended between writers.
+ *
+ * Renaming moves a property to the shard of its new name. The rename runs on the
+ * old shard, and commands that were already queued there are passed on to the
+ * new one, so no change is lost or applied by the wrong thread.
+ *
+ * Commands must not wait for another shard (e.g. by calling call() for a
+ * property on a different shard), or two shards could wait on each other.
+ * Work that spans shards, like a group booking, is driven by the caller's thread.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class ShardedBookingService {
+    private Shard[] shards;
+
+    /**
+     * Creates a service with one shard per available processor.
+     */
+    public ShardedBookingService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a service with the given number of shards and starts their threads.
+     * @param shardCount number of shards (at least 1)
+     */
+    public ShardedBookingService(int shardCount) {
+        shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(this, i);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the number of shards.
+     * @return shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the shard that owns a property.
+     * @param prop the property
+     * @return shard number (0 to getShardCount() - 1)
+     */
+    public int getShardOf(Property prop) {
+        return prop.shard >= 0 ? prop.shard : shardFor(prop.getName());
+    }
+
+    // -------------------------------------------------------
+    // Commands
+    // -------------------------------------------------------
+
+    /**
+     * Assigns a new property to the shard of its name. Called before the property
+     * is shared with other threads.
+     * @param prop the property
+     */
+    void register(Property prop) {
+        prop.shard = shardFor(prop.getName());
+    }
+
+    /**
+     * Queues a change to a property on the shard that owns it.
+     * @param prop the property
+     * @param change work to run with the property
+     * @return future completing with the change's result
+     */
+    public <T> CompletableFuture<T> submit(Property prop, Function<Property, T> change) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        shards[getShardOf(prop)].offer(new Command(prop, () -> {
+            try {
+                result.complete(change.apply(prop));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Runs a change to a property on the shard that owns it and waits for it.
+     * If the caller already is that shard's thread, the change runs right away.
+     * @param prop the property
+     * @param change work to run with the property
+     * @return the change's result
+     */
+    public <T> T call(Property prop, Function<Property, T> change) {
+        if (Thread.currentThread() == shards[getShardOf(prop)].thread) {
+            return change.apply(prop);
+        }
+        return await(submit(prop, change));
+    }
+
+    /**
+     * Runs a change that has no result on the shard that owns the property and waits for it.
+     * @param prop the property
+     * @param change work to run with the property
+     */
+    public void run(Property prop, Consumer<Property> change) {
+        call(prop, p -> {
+            change.accept(p);
+            return null;
+        });
+    }
+
+    /**
+     * Renames a property on its shard and moves it to the shard of the new name.
+     * @param prop the property
+     * @param newName new property name
+     * @return true if renamed, false if the name is blank
+     */
+    public boolean rename(Property prop, String newName) {
+        return call(prop, p -> {
+            if (!p.rename(newName)) {
+                return false;
+            }
+            p.shard = shardFor(p.getName());
+            return true;
+        });
+    }
+
+    /**
+     * Waits for a submitted change, rethrowing its exception if it failed.
+     * @param future future returned by submit
+     * @return the change's result
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Picks the shard for a property name.
+     */
+    private int shardFor(String name) {
+        int h = SystemManager.nameKey(name).hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shards.length);
+    }
+
+    // -------------------------------------------------------
+    // Shard
+    // -------------------------------------------------------
+
+    /**
+     * A queued change and the property it is for.
+     */
+    private static class Command {
+        private Property property;
+        private Runnable work;
+
+        Command(Property property, Runnable work) {
+            this.property = property;
+            this.work = work;
+        }
+    }
+
+    /**
+     * A single-writer partition of the portfolio.
+     */
+    private static class Shard implements Runnable {
+        private ShardedBookingService service;
+        private int index;
+        private ConcurrentLinkedQueue<Command> commands;
+        private Thread thread;
+
+        Shard(ShardedBookingService service, int index) {
+            this.service = service;
+            this.index = index;
+            commands = new ConcurrentLinkedQueue<>();
+            thread = new Thread(this, "booking-shard-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void offer(Command command) {
+            commands.offer(command);
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Command command = commands.poll();
+                if (command == null) {
+                    LockSupport.park(this);
+                } else if (command.property.shard >= 0 && command.property.shard != index) {
+                    // queued before the property was renamed to another shard
+                    service.shards[command.property.shard].offer(command);
+                } else {
+                    command.work.run();
+                }
+            }
+        }
+    }
+}
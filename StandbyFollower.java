@@ -0,0 +1,477 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * StandbyFollower.java
+ *
+ * Warm standby for Green Property Exchange. Run it as a second program next to
+ * the primary:
+ *   java Driver replication.log
+ *   java StandbyFollower replication.log [log-after-takeover]
+ *
+ * A background thread tails the primary's ReplicationLog and applies new records
+ * in batches to its own SystemManager, so the standby stays a few milliseconds behind.
+ * Meanwhile the console serves read-only queries (listing, calendars, cheapest stays).
+ * "Take Over as Primary" applies whatever is left in the log and continues with the
+ * normal main menu, optionally shipping its own changes to a new log.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class StandbyFollower {
+    /** How long the tailer waits when there is nothing new in the log. */
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    /** Most records applied while holding the lock, so queries are never blocked for long. */
+    private static final int MAX_BATCH = 4096;
+
+    private SystemManager manager;    // also the lock for applying records and reading
+    private String path;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] lineBytes;         // bytes of the line being read, kept across reads
+    private int lineLength;
+    private long offset;
+    private boolean headerSeen;
+    private Thread tailer;
+    private volatile boolean running;
+    private volatile long appliedSequence;
+    private volatile long appliedTimeMillis;   // when the primary wrote the last applied record
+    private volatile long skippedCount;
+    private volatile String stopReason;
+
+    /**
+     * Creates a standby that applies the log to the given system.
+     * @param manager the system to keep up to date (normally empty)
+     * @param path log file written by the primary
+     */
+    public StandbyFollower(SystemManager manager, String path) {
+        this.manager = manager;
+        this.path = path;
+        this.buffer = ByteBuffer.allocate(64 * 1024);
+        this.lineBytes = new byte[256];
+    }
+
+    /**
+     * Main method to run the standby.
+     * @param args replication log path, and optionally the log to write after taking over
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java StandbyFollower <replication-log> [log-after-takeover]");
+            return;
+        }
+        ConsoleInput input = ConsoleInput.shared();
+        StandbyFollower follower = new StandbyFollower(new SystemManager(input), args[0]);
+        try {
+            follower.start();
+        } catch (IOException e) {
+            System.out.println("[ERROR] Could not open replication log '" + args[0] + "': " + e.getMessage());
+            return;
+        }
+        follower.runMenu(input, args.length > 1 ? args[1] : null);
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the sequence number of the last applied record.
+     * @return last applied sequence number
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Gets how many records could not be applied (e.g. a booking for an unknown property).
+     * @return number of skipped records
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Checks if the standby is still following the log.
+     * @return true if following
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    // -------------------------------------------------------
+    // Following the log
+    // -------------------------------------------------------
+
+    /**
+     * Opens the log and starts applying it in the background.
+     * @throws IOException if the log cannot be opened
+     */
+    public void start() throws IOException {
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        running = true;
+        tailer = new Thread(this::tailLoop, "standby-tailer");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    /**
+     * Stops following, applies everything left in the log and closes it.
+     * After this the system can be used as the primary.
+     * @return sequence number of the last applied record
+     */
+    public long promote() {
+        // not interrupted: that would close the channel in the middle of a read
+        running = false;
+        try {
+            tailer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (stopReason == null) {
+            catchUp();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing left to read
+        }
+        return appliedSequence;
+    }
+
+    private void tailLoop() {
+        while (running) {
+            if (catchUp() == 0) {
+                try {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads and applies every complete line written since the last call.
+     * @return number of records applied
+     */
+    private int catchUp() {
+        int applied = 0;
+        ArrayList<String> batch = new ArrayList<>();
+        try {
+            if (channel.size() < offset) {
+                stop("the primary started a new log. Restart the standby to follow it.");
+                return 0;
+            }
+            while (stopReason == null) {
+                buffer.clear();
+                int n = channel.read(buffer, offset);
+                if (n <= 0) {
+                    break;
+                }
+                offset += n;
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < n; i++) {
+                    if (bytes[i] == '\n') {
+                        batch.add(new String(lineBytes, 0, lineLength, StandardCharsets.UTF_8));
+                        lineLength = 0;
+                        if (batch.size() >= MAX_BATCH) {
+                            applied += applyBatch(batch);
+                            batch.clear();
+                        }
+                    } else {
+                        if (lineLength == lineBytes.length) {
+                            lineBytes = Arrays.copyOf(lineBytes, lineLength * 2);
+                        }
+                        lineBytes[lineLength++] = bytes[i];
+                    }
+                }
+            }
+        } catch (IOException e) {
+            stop("could not read the log: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            applied += applyBatch(batch);
+        }
+        return applied;
+    }
+
+    /**
+     * Applies a batch of records while holding the system's lock,
+     * so read-only queries never see half of a batch.
+     */
+    private int applyBatch(ArrayList<String> batch) {
+        int applied = 0;
+        synchronized (manager) {
+            for (String line : batch) {
+                if (stopReason != null) {
+                    break;
+                }
+                try {
+                    apply(line);
+                    applied++;
+                } catch (RuntimeException e) {
+                    stop("record after #" + appliedSequence + " could not be applied (" + e.getMessage() + ").");
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Applies one record to the system.
+     * @throws IllegalStateException if the record is out of sequence or malformed
+     */
+    private void apply(String line) {
+        if (!headerSeen) {
+            if (!line.equals(ReplicationLog.HEADER)) {
+                throw new IllegalStateException("not a replication log");
+            }
+            headerSeen = true;
+            return;
+        }
+        ArrayList<String> f = ReplicationLog.parse(line);
+        long sequence = Long.parseLong(f.get(0));
+        if (sequence != appliedSequence + 1) {
+            throw new IllegalStateException("expected record #" + (appliedSequence + 1) + " but found #" + sequence);
+        }
+        String type = f.get(2);
+        boolean ok;
+        if (type.equals(ReplicationLog.CREATE)) {
+            Property prop = new Property(f.get(3), Long.parseLong(f.get(4)));
+            for (String day : f.get(5).split(",")) {
+                if (!day.isEmpty()) {
+                    prop.importDate(Integer.parseInt(day));
+                }
+            }
+            ok = manager.addProperty(prop);
+        } else {
+            Property prop = manager.findProperty(f.get(3));
+            ok = prop != null && applyTo(prop, type, f);
+        }
+        if (!ok) {
+            skippedCount++;
+        }
+        appliedSequence = sequence;
+        appliedTimeMillis = Long.parseLong(f.get(1));
+    }
+
+    /**
+     * Applies a record that changes an existing property. Changes to the property
+     * itself run on the shard that owns it, like on the primary.
+     * @return true if the change was applied
+     */
+    private boolean applyTo(Property prop, String type, ArrayList<String> f) {
+        switch (type) {
+            case ReplicationLog.REMOVE:
+                manager.removeProperty(prop);
+                return true;
+            case ReplicationLog.RENAME:
+                return manager.renameProperty(prop, f.get(4));
+            default:
+                return manager.getShards().call(prop, p -> applyChange(p, type, f));
+        }
+    }
+
+    /**
+     * Applies a record to the property's calendar, prices or rules (on its shard).
+     * @return true if the change was applied
+     */
+    private boolean applyChange(Property prop, String type, ArrayList<String> f) {
+        switch (type) {
+            case ReplicationLog.PRICE:
+                return prop.updateBasePrice(Long.parseLong(f.get(4))) == null;
+            case ReplicationLog.ADD_DATE:
+                return prop.importDate(Integer.parseInt(f.get(4)));
+            case ReplicationLog.REMOVE_DATE:
+                return prop.tryRemoveDate(Integer.parseInt(f.get(4))) == null;
+            case ReplicationLog.BOOK: {
+                // the primary already checked availability and rules; copy the booking as it was made
+                int checkIn = Integer.parseInt(f.get(5));
+                int checkOut = Integer.parseInt(f.get(6));
+                prop.bookDates(checkIn, checkOut);
+                prop.addReservation(new Reservation(f.get(4), checkIn, checkOut));
+                return true;
+            }
+            case ReplicationLog.CANCEL: {
+                int checkIn = Integer.parseInt(f.get(5));
+                int checkOut = Integer.parseInt(f.get(6));
+                for (Reservation r : prop.getReservations()) {
+                    if (r.getGuestName().equals(f.get(4)) && r.getCheckIn() == checkIn && r.getCheckOut() == checkOut) {
+                        return prop.cancelReservation(r);
+                    }
+                }
+                return false;
+            }
+            case ReplicationLog.RULES:
+                prop.setStayRules(new StayRules(Integer.parseInt(f.get(4)), Integer.parseInt(f.get(5)),
+                        Integer.parseInt(f.get(6)), f.get(7).equals("1")));
+                return true;
+            default:
+                throw new IllegalStateException("unknown record type " + type);
+        }
+    }
+
+    private void stop(String reason) {
+        if (stopReason == null) {
+            stopReason = reason;
+            running = false;
+            System.out.println("\n[ERROR] Standby stopped following '" + path + "': " + reason);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Read-only console
+    // -------------------------------------------------------
+
+    /**
+     * Runs the standby menu until the user exits, takes over, or input ends.
+     * @param input console input
+     * @param nextLogPath log to ship changes to after taking over, or null for none
+     */
+    public void runMenu(ConsoleInput input, String nextLogPath) {
+        try {
+            int choice;
+            do {
+                System.out.println("\n==================================");
+                System.out.println("    GREEN PROPERTY EXCHANGE");
+                System.out.println("      STANDBY (READ-ONLY)");
+                System.out.println("==================================");
+                System.out.println("1. List Properties");
+                System.out.println("2. View Property");
+                System.out.println("3. Search Cheapest Stays");
+                System.out.println("4. Replication Status");
+                System.out.println("5. Take Over as Primary");
+                System.out.println("6. Exit Standby");
+                System.out.println("==================================");
+                System.out.print("Choose an option (1-6): ");
+                choice = readInt(input, 1, 6);
+
+                switch (choice) {
+                    case 1:
+                        synchronized (manager) {
+                            manager.listProperties();
+                        }
+                        break;
+                    case 2:
+                        viewProperty(input);
+                        break;
+                    case 3:
+                        searchCheapestStays(input);
+                        break;
+                    case 4:
+                        showStatus();
+                        break;
+                    case 5:
+                        takeOver(input, nextLogPath);
+                        return;
+                    case 6:
+                        System.out.println("\nStandby stopped. Goodbye!");
+                        break;
+                }
+            } while (choice != 6);
+        } catch (NoSuchElementException e) {
+            System.out.println("\n[INFO] End of input reached.");
+            System.out.println("Goodbye!");
+        }
+    }
+
+    private void viewProperty(ConsoleInput input) {
+        System.out.print("Enter property name to view: ");
+        String name = input.nextLine().trim();
+        synchronized (manager) {
+            Property prop = manager.findProperty(name);
+            if (prop == null) {
+                System.out.println("[ERROR] Property '" + name + "' not found.");
+                return;
+            }
+            prop.displayInfo();
+            prop.displayCalendar();
+        }
+    }
+
+    private void searchCheapestStays(ConsoleInput input) {
+        System.out.print("Enter check-in day (1-29): ");
+        int checkIn = readInt(input, 1, 29);
+        System.out.print("Enter check-out day (" + (checkIn + 1) + "-30): ");
+        int checkOut = readInt(input, checkIn + 1, 30);
+        System.out.print("How many results to show (1-50): ");
+        int k = readInt(input, 1, 50);
+
+        synchronized (manager) {
+            ArrayList<CheapestStaySearch.Result> results = CheapestStaySearch.search(manager.getProperties(), checkIn, checkOut, k);
+            if (results.isEmpty()) {
+                System.out.println("[INFO] No property is available from Day " + checkIn + " to " + checkOut + ".");
+                return;
+            }
+            System.out.println("\nCHEAPEST STAYS (Day " + checkIn + " to " + checkOut + "):");
+            for (int i = 0; i < results.size(); i++) {
+                CheapestStaySearch.Result r = results.get(i);
+                System.out.printf("   %2d. %-25s PHP %12s%n", i + 1, r.getProperty().getName(), Money.format(r.getTotalPrice()));
+            }
+        }
+    }
+
+    private void showStatus() {
+        System.out.println("\n=== REPLICATION STATUS ===");
+        System.out.println("-----------------------------------");
+        System.out.println("Log: " + path);
+        System.out.println("State: " + (running ? "following" : "stopped (" + stopReason + ")"));
+        System.out.println("Last applied record: #" + appliedSequence);
+        long behind = 0;
+        try {
+            behind = Math.max(0, channel.size() - offset);
+        } catch (IOException e) {
+            // closed
+        }
+        if (behind == 0 && appliedSequence > 0) {
+            System.out.println("Lag: caught up (last change " + (System.currentTimeMillis() - appliedTimeMillis) + " ms ago)");
+        } else {
+            System.out.println("Lag: " + behind + " bytes not applied yet");
+        }
+        synchronized (manager) {
+            System.out.println("Properties: " + manager.getProperties().size());
+        }
+        System.out.println("Records skipped: " + skippedCount);
+        System.out.println("-----------------------------------");
+    }
+
+    private void takeOver(ConsoleInput input, String nextLogPath) {
+        long last = promote();
+        System.out.println("[SUCCESS] Took over as primary after applying record #" + last + ".");
+        if (nextLogPath != null) {
+            try {
+                manager.startReplication(nextLogPath);
+                System.out.println("[INFO] Shipping changes to replication log '" + nextLogPath + "'.");
+            } catch (IOException e) {
+                System.out.println("[ERROR] Could not start replication log '" + nextLogPath + "': " + e.getMessage());
+            }
+        }
+        Driver.runMenu(manager, input);
+    }
+
+    /**
+     * Validates integer input between min and max.
+     */
+    private static int readInt(ConsoleInput input, int min, int max) {
+        while (true) {
+            long num = input.nextInt();
+            if (num == ConsoleInput.NOT_A_NUMBER) {
+                System.out.print("[ERROR] Invalid input. Enter a number: ");
+            } else if (num < min || num > max) {
+                System.out.print("[ERROR] Enter a number between " + min + " and " + max + ": ");
+            } else {
+                return (int) num;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * StayRules.java
+ *
+ * Per-property booking rules:
+ *  - minimum and maximum number of nights
+ *  - days on which guests may not check in
+ *  - optionally, no booking may leave a free gap shorter than the minimum stay
+ *    next to it (such a gap could never be booked)
+ *
+ * The rules are compiled once into a table with one bitmask per check-in day
+ * saying which check-out days are allowed, so checking a stay is a few bit
+ * operations done together with the availability check in Property.canBook,
+ * no matter how many rules are set.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class StayRules {
+    /** No restrictions beyond availability. */
+    public static final StayRules NONE = new StayRules(1, 29, 0, false);
+
+    private int minNights;
+    private int maxNights;
+    private int noCheckInMask;     // bit d set = no check-in on day d
+    private boolean preventGaps;
+    private int[] allowedCheckOut; // index = check-in day, bit d set = may check out on day d
+
+    /**
+     * Compiles a set of stay rules.
+     * @param minNights     minimum nights per stay (1-29)
+     * @param maxNights     maximum nights per stay (minNights-29)
+     * @param noCheckInMask bit d set means guests may not check in on day d
+     * @param preventGaps   true to reject stays that leave a free gap shorter than minNights
+     */
+    public StayRules(int minNights, int maxNights, int noCheckInMask, boolean preventGaps) {
+        this.minNights = Math.max(1, Math.min(29, minNights));
+        this.maxNights = Math.max(this.minNights, Math.min(29, maxNights));
+        this.noCheckInMask = noCheckInMask & ~1;
+        this.preventGaps = preventGaps && this.minNights > 1;
+
+        allowedCheckOut = new int[31];
+        for (int checkIn = 1; checkIn <= 29; checkIn++) {
+            if ((this.noCheckInMask & (1 << checkIn)) != 0) {
+                continue;
+            }
+            int first = checkIn + this.minNights;
+            int last = Math.min(30, checkIn + this.maxNights);
+            if (first <= last) {
+                allowedCheckOut[checkIn] = rangeMask(first, last + 1);
+            }
+        }
+    }
+
+    // -------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------
+
+    /**
+     * Gets the minimum nights per stay.
+     * @return minimum nights
+     */
+    public int getMinNights() {
+        return minNights;
+    }
+
+    /**
+     * Gets the maximum nights per stay.
+     * @return maximum nights
+     */
+    public int getMaxNights() {
+        return maxNights;
+    }
+
+    /**
+     * Gets the days on which check-in is not allowed.
+     * @return bitmask, bit d set for day d
+     */
+    public int getNoCheckInMask() {
+        return noCheckInMask;
+    }
+
+    /**
+     * Checks if stays that leave unbookable gaps are rejected.
+     * @return true if gaps are prevented
+     */
+    public boolean isPreventGaps() {
+        return preventGaps;
+    }
+
+    // -------------------------------------------------------
+    // Evaluation
+    // -------------------------------------------------------
+
+    /**
+     * Checks a stay against the nights that are free and against every rule at once.
+     * @param freeMask bit d set if day d is listed and free
+     * @param checkIn check-in day (1-29)
+     * @param checkOut check-out day (checkIn+1 - 30)
+     * @return true if the stay can be booked
+     */
+    public boolean allows(int freeMask, int checkIn, int checkOut) {
+        int stay = rangeMask(checkIn, checkOut);
+        if ((freeMask & stay) != stay || (allowedCheckOut[checkIn] & (1 << checkOut)) == 0) {
+            return false;
+        }
+        return !preventGaps || !leavesGap(freeMask, checkIn, checkOut);
+    }
+
+    /**
+     * Explains why a stay is rejected by the rules (availability is not checked here).
+     * @param freeMask bit d set if day d is listed and free
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     * @return reason, or null if the rules allow the stay
+     */
+    public String explain(int freeMask, int checkIn, int checkOut) {
+        int nights = checkOut - checkIn;
+        if ((noCheckInMask & (1 << checkIn)) != 0) {
+            return "Check-in is not allowed on day " + checkIn + ".";
+        }
+        if (nights < minNights) {
+            return "Stays must be at least " + minNights + " nights.";
+        }
+        if (nights > maxNights) {
+            return "Stays can be at most " + maxNights + " nights.";
+        }
+        if (preventGaps && leavesGap(freeMask, checkIn, checkOut)) {
+            return "This stay would leave a gap shorter than " + minNights + " nights that no one could book.";
+        }
+        return null;
+    }
+
+    /**
+     * Describes the rules for display.
+     * @return readable summary
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Stay length: ").append(minNights).append("-").append(maxNights).append(" nights");
+        if (noCheckInMask != 0) {
+            sb.append(", no check-in on days");
+            for (int day = 1; day <= 30; day++) {
+                if ((noCheckInMask & (1 << day)) != 0) {
+                    sb.append(' ').append(day);
+                }
+            }
+        }
+        if (preventGaps) {
+            sb.append(", no unbookable gaps");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks if the free run right before checkIn or right after checkOut
+     * would be shorter than the minimum stay.
+     */
+    private boolean leavesGap(int freeMask, int checkIn, int checkOut) {
+        // day 0 does not exist and the night of day 30 can never be booked
+        // (no check-in on day 30), so both searches always stop
+        int takenBelow = ~freeMask & rangeMask(0, checkIn);
+        int leftRun = checkIn - 1 - (31 - Integer.numberOfLeadingZeros(takenBelow));
+        int takenAbove = (~freeMask | (3 << 30)) & (-1 << checkOut);
+        int rightRun = Integer.numberOfTrailingZeros(takenAbove) - checkOut;
+        return (leftRun > 0 && leftRun < minNights) || (rightRun > 0 && rightRun < minNights);
+    }
+
+    /**
+     * Gets a mask with bits from (inclusive) to to (exclusive) set.
+     */
+    static int rangeMask(int from, int to) {
+        return (int) ((1L << to) - (1L << from));
+    }
+}
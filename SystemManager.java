@@ -1,5 +1,23 @@
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
 
 /**
  * SystemManager.java
@@ -13,15 +31,54 @@ import java.util.Scanner;
  * @version 1.8
  */
 public class SystemManager {
-    private ArrayList<Property> properties;
-    private Scanner sc;
+    private PropertyTable properties;
+    private HashMap<String, Property> propertiesByName; // keyed by nameKey()
+    private ShardedBookingService shards;
+    private HoldManager holds;
+    private BookingDedupCache bookings;
+    private QuoteCache quotes;
+    private ConsistencyChecker checker;
+    private ConsoleInput input;
+    private ReplicationLog replication;   // null unless a standby is following
+    private PropertyPager pager;
+
+    /** How long nights stay on hold while a booking waits for confirmation. */
+    private static final long HOLD_TTL_MILLIS = 5 * 60 * 1000;
+
+    /** How long a booking reference is remembered, so a retry gets the original outcome. */
+    private static final long BOOKING_REFERENCE_TTL_MILLIS = 10 * 60 * 1000;
+
+    /** Maximum number of remembered booking references. */
+    private static final int MAX_BOOKING_REFERENCES = 100_000;
+
+    /** Maximum number of cached price quotes. */
+    private static final int QUOTE_CACHE_SIZE = 10_000;
+
+    /** Most property calendars kept in memory; colder ones are paged out to disk. */
+    private static final int MAX_RESIDENT_PROPERTIES = 10_000;
 
     /** 
-     * Initializes the SystemManager with an empty list of properties.
+     * Initializes the SystemManager with an empty list of properties,
+     * reading from the shared console input.
      */
     public SystemManager() {
-        properties = new ArrayList<>();
-        sc = new Scanner(System.in);
+        this(ConsoleInput.shared());
+    }
+
+    /**
+     * Initializes the SystemManager with an empty list of properties.
+     * @param input console input used by every prompt
+     */
+    public SystemManager(ConsoleInput input) {
+        properties = new PropertyTable();
+        propertiesByName = new HashMap<>();
+        shards = new ShardedBookingService();
+        holds = new HoldManager(HOLD_TTL_MILLIS, shards);
+        bookings = new BookingDedupCache(MAX_BOOKING_REFERENCES, BOOKING_REFERENCE_TTL_MILLIS);
+        quotes = new QuoteCache(QUOTE_CACHE_SIZE);
+        checker = new ConsistencyChecker();
+        pager = new PropertyPager(MAX_RESIDENT_PROPERTIES);
+        this.input = input;
     }
 
     // -------------------------------------------------------
@@ -36,7 +93,7 @@ public class SystemManager {
         System.out.println("\n=== CREATE PROPERTY LISTING ===");
         System.out.println("-----------------------------------");
         System.out.print("Enter Property Name: ");
-        String name = sc.nextLine().trim();
+        String name = input.nextLine().trim();
 
         if (name.isEmpty()) {
             System.out.println("[ERROR] Property name cannot be blank.");
@@ -59,22 +116,15 @@ public class SystemManager {
             int dayNumber = getValidatedInt(1, 30);
             
             // Check if this day is already added to avoid duplicates
-            boolean alreadyExists = false;
-            for (Date date : newProp.getDates()) {
-                if (date.getDayNumber() == dayNumber) {
-                    System.out.println("[ERROR] Day " + dayNumber + " is already added. Please choose a different day.");
-                    alreadyExists = true;
-                    i--; // Retry this iteration
-                    break;
-                }
-            }
-            
-            if (!alreadyExists) {
+            if (newProp.findDate(dayNumber) != null) {
+                System.out.println("[ERROR] Day " + dayNumber + " is already added. Please choose a different day.");
+                i--; // Retry this iteration
+            } else {
                 newProp.addDate(dayNumber);
             }
         }
 
-        properties.add(newProp);
+        addProperty(newProp);
         System.out.println("[SUCCESS] Property '" + name + "' successfully created with " + numDates + " available dates!");
     }
 
@@ -96,7 +146,7 @@ public class SystemManager {
         System.out.println("-----------------------------------");
         listProperties();
         System.out.print("Enter property name to view: ");
-        String name = sc.nextLine().trim();
+        String name = input.nextLine().trim();
         Property prop = findProperty(name);
 
         if (prop == null) {
@@ -113,9 +163,11 @@ public class SystemManager {
             System.out.println("3. Date Information");
             System.out.println("4. Reservation Information");
             System.out.println("5. All Reservations");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Price Quote");
+            System.out.println("7. Calendar History");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter choice: ");
-            choice = getValidatedInt(1, 6);
+            choice = getValidatedInt(1, 8);
 
             switch (choice) {
                 case 1:
@@ -153,10 +205,100 @@ public class SystemManager {
                     break;
                     
                 case 6:
+                    System.out.print("Enter check-in day (1-29): ");
+                    int quoteIn = getValidatedInt(1, 29);
+                    System.out.print("Enter check-out day (" + (quoteIn + 1) + "-30): ");
+                    int quoteOut = getValidatedInt(quoteIn + 1, 30);
+                    showQuote(prop, quoteIn, quoteOut);
+                    break;
+
+                case 7:
+                    showCalendarHistory(prop);
+                    break;
+
+                case 8:
                     System.out.println("Returning to main menu...");
                     break;
             }
-        } while (choice != 6);
+        } while (choice != 8);
+    }
+
+    /**
+     * Shows a past calendar version of a property, picked by version number
+     * or by the date and time it was in effect.
+     * @param prop property whose history is shown
+     */
+    private void showCalendarHistory(Property prop) {
+        CalendarHistory history = prop.getHistory();
+        int count = history.getVersionCount();
+        System.out.println("\n=== CALENDAR HISTORY ===");
+        System.out.println("-----------------------------------");
+        System.out.println("1. Pick a version");
+        System.out.println("2. View as of a date and time");
+        System.out.print("Choose an option (1-2): ");
+        if (getValidatedInt(1, 2) == 2) {
+            System.out.print("Enter date and time (yyyy-MM-dd HH:mm, or yyyy-MM-dd for the end of that day): ");
+            String text = input.nextLine().trim();
+            long timeMillis = parseDateTime(text);
+            if (timeMillis < 0) {
+                System.out.println("[ERROR] Invalid date and time '" + text + "'.");
+                return;
+            }
+            CalendarSnapshot snapshot = history.at(timeMillis);
+            if (snapshot == null) {
+                System.out.println("[INFO] The history starts at " + history.getVersion(1).getTimeText()
+                        + "; there is no earlier version.");
+            } else {
+                snapshot.displayCalendar();
+            }
+            return;
+        }
+
+        for (int v = 1; v <= count; v++) {
+            System.out.println("   Version " + v + ": " + history.getVersion(v).getTimeText());
+        }
+        System.out.print("Enter version to view (1-" + count + "): ");
+        history.getVersion(getValidatedInt(1, count)).displayCalendar();
+    }
+
+    /**
+     * Reads a local date and time typed by the user.
+     * @param text "yyyy-MM-dd HH:mm", "yyyy-MM-dd HH:mm:ss" or "yyyy-MM-dd" (end of that day)
+     * @return milliseconds since the epoch, or -1 if the text is not a valid date and time
+     */
+    private static long parseDateTime(String text) {
+        try {
+            LocalDateTime time;
+            if (text.indexOf(' ') < 0) {
+                time = LocalDate.parse(text).atTime(LocalTime.MAX);
+            } else {
+                time = LocalDateTime.parse(text.replaceFirst(" +", "T"));
+            }
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Shows the price of a stay using the quote cache.
+     * @param prop property to quote
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     */
+    private void showQuote(Property prop, int checkIn, int checkOut) {
+        Quote quote = quotes.quote(prop, checkIn, checkOut);
+        System.out.println("\n=== PRICE QUOTE ===");
+        System.out.println("-----------------------------------");
+        System.out.println("Stay: Day " + checkIn + " to " + checkOut + " (" + (checkOut - checkIn) + " nights)");
+        if (quote.isAvailable()) {
+            System.out.println("Total Price: PHP " + Money.format(quote.getTotalPrice()));
+        } else {
+            System.out.println("[INFO] These nights are not all available.");
+        }
+        System.out.printf("[INFO] Quote cache hit rate: %.1f%% (%d hits, %d misses)%n",
+                quotes.getHitRate() * 100, quotes.getHits(), quotes.getMisses());
+        System.out.println("-----------------------------------");
     }
 
     // -------------------------------------------------------
@@ -176,7 +318,7 @@ public class SystemManager {
         System.out.println("-----------------------------------");
         listProperties();
         System.out.print("Enter property name to manage: ");
-        String name = sc.nextLine().trim();
+        String name = input.nextLine().trim();
         Property prop = findProperty(name);
 
         if (prop == null) {
@@ -193,58 +335,153 @@ public class SystemManager {
             System.out.println("3. Add Date");
             System.out.println("4. Remove Date");
             System.out.println("5. Remove this Property");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Cancel Reservation");
+            System.out.println("7. Set Stay Rules");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter choice: ");
-            choice = getValidatedInt(1, 6);
+            choice = getValidatedInt(1, 8);
 
             switch (choice) {
                 case 1:
                     System.out.print("Enter new property name: ");
-                    String newName = sc.nextLine().trim();
+                    String newName = input.nextLine().trim();
                     if (findProperty(newName) != null && !newName.equalsIgnoreCase(prop.getName())) {
                         System.out.println("[ERROR] Another property already uses that name.");
+                    } else if (!renameProperty(prop, newName)) {
+                        System.out.println("[ERROR] Invalid name. Property name cannot be blank.");
                     } else {
-                        prop.setName(newName);
+                        System.out.println("[SUCCESS] Property name successfully changed to: " + prop.getName());
                     }
                     break;
 
                 case 2:
                     System.out.print("Enter new base price (>= 100): ");
-                    double newPrice = getValidatedDouble(100, 999999);
-                    prop.setBasePrice(newPrice);
+                    long newPrice = getValidatedPrice(Money.ofPesos(100), Money.ofPesos(999999));
+                    shards.run(prop, p -> p.setBasePrice(newPrice));
                     break;
 
                 case 3:
-                    if (prop.getDates().size() >= 30) {
+                    if (prop.getDateCount() >= 30) {
                         System.out.println("[ERROR] Cannot add more than 30 dates.");
                     } else {
                         System.out.print("Enter day number to add (1-30): ");
                         int dayToAdd = getValidatedInt(1, 30);
-                        prop.addDate(dayToAdd);
+                        shards.run(prop, p -> p.addDate(dayToAdd));
                     }
                     break;
 
                 case 4:
                     System.out.print("Enter day number to remove (1-30): ");
                     int dayToRemove = getValidatedInt(1, 30);
-                    prop.removeDate(dayToRemove);
+                    shards.run(prop, p -> p.removeDate(dayToRemove));
                     break;
 
                 case 5:
-                    if (!prop.getReservations().isEmpty()) {
+                    if (prop.getReservationCount() > 0) {
                         System.out.println("[ERROR] Cannot remove property with active reservations.");
                     } else {
-                        properties.remove(prop);
+                        removeProperty(prop);
                         System.out.println("[SUCCESS] Property '" + name + "' removed successfully.");
                         return;
                     }
                     break;
 
                 case 6:
+                    cancelReservation(prop);
+                    break;
+
+                case 7:
+                    setStayRules(prop);
+                    break;
+
+                case 8:
                     System.out.println("Returning to main menu...");
                     break;
             }
-        } while (choice != 6);
+        } while (choice != 8);
+    }
+
+    /**
+     * Prompts for new stay rules and applies them to the property.
+     * Existing reservations are not affected.
+     * @param prop property whose rules are changed
+     */
+    private void setStayRules(Property prop) {
+        System.out.println("\nCurrent rules: " + prop.getStayRules().describe());
+        System.out.print("Enter minimum nights per stay (1-29): ");
+        int minNights = getValidatedInt(1, 29);
+        System.out.print("Enter maximum nights per stay (" + minNights + "-29): ");
+        int maxNights = getValidatedInt(minNights, 29);
+
+        System.out.print("Enter days with no check-in, separated by commas (blank for none): ");
+        String line = input.nextLine();
+        int noCheckInMask = 0;
+        int day = -1;
+        boolean ended = false;   // a space came after the digits, so the number is complete
+        for (int i = 0; i <= line.length(); i++) {
+            char c = i < line.length() ? line.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                if (ended) {
+                    day = 99;   // "1 5": two numbers without a comma
+                    break;
+                }
+                day = (day < 0 ? 0 : day * 10) + (c - '0');
+                if (day > 30) {
+                    break;
+                }
+            } else if (c == ',') {
+                if (day == 0) {
+                    break;
+                }
+                if (day > 0) {
+                    noCheckInMask |= 1 << day;
+                }
+                day = -1;
+                ended = false;
+            } else if (c == ' ') {
+                ended = day >= 0;
+            } else {
+                day = 99;
+                break;
+            }
+        }
+        if (day == 0 || day > 30) {
+            System.out.println("[ERROR] Invalid day list. Days must be numbers between 1-30, separated by commas.");
+            return;
+        }
+
+        boolean preventGaps = false;
+        if (minNights > 1) {
+            System.out.print("Reject stays that leave gaps shorter than " + minNights + " nights? (Y/N): ");
+            preventGaps = input.nextLine().trim().equalsIgnoreCase("Y");
+        }
+
+        StayRules rules = new StayRules(minNights, maxNights, noCheckInMask, preventGaps);
+        shards.run(prop, p -> p.setStayRules(rules));
+        System.out.println("[SUCCESS] Stay rules updated: " + prop.getStayRules().describe());
+    }
+
+    /**
+     * Lets the user pick one of the property's reservations and cancels it.
+     * Freed nights are offered to the property's waitlist.
+     * @param prop property whose reservation is cancelled
+     */
+    private void cancelReservation(Property prop) {
+        ArrayList<Reservation> reservations = prop.getReservations();
+        if (reservations.isEmpty()) {
+            System.out.println("[INFO] No reservations for this property.");
+            return;
+        }
+
+        System.out.println("\nRESERVATIONS:");
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation r = reservations.get(i);
+            System.out.println("   " + (i + 1) + ". " + r.getGuestName() + " (Day " + r.getCheckIn() + " to " + r.getCheckOut() + ")");
+        }
+        System.out.print("Enter reservation number to cancel: ");
+        Reservation reservation = reservations.get(getValidatedInt(1, reservations.size()) - 1);
+        shards.run(prop, p -> p.cancelReservation(reservation));
+        System.out.println("[SUCCESS] Reservation for '" + reservation.getGuestName() + "' cancelled.");
     }
 
     // -------------------------------------------------------
@@ -264,7 +501,7 @@ public class SystemManager {
 
         listProperties();
         System.out.print("Enter property name to book: ");
-        String propName = sc.nextLine().trim();
+        String propName = input.nextLine().trim();
         Property prop = findProperty(propName);
 
         if (prop == null) {
@@ -277,7 +514,7 @@ public class SystemManager {
         prop.displayCalendar();
 
         System.out.print("\nEnter guest name: ");
-        String guestName = sc.nextLine().trim();
+        String guestName = input.nextLine().trim();
         if (guestName.isEmpty()) {
             System.out.println("[ERROR] Guest name cannot be blank.");
             return;
@@ -300,15 +537,46 @@ public class SystemManager {
             return;
         }
 
+        System.out.print("Enter booking reference (blank if none): ");
+        String requestId = input.nextLine().trim();
+        if (!requestId.isEmpty() && bookings.contains(requestId)) {
+            // a retry: answer with the original outcome without touching the calendar
+            try {
+                Reservation original = bookings.get(requestId, prop, guestName, checkIn, checkOut);
+                if (original != null) {
+                    System.out.println("[INFO] Booking '" + requestId + "' was already confirmed.");
+                    original.displayReservation();
+                } else {
+                    System.out.println("[INFO] Booking '" + requestId + "' was already processed and could not be booked.");
+                }
+                return;
+            } catch (IllegalArgumentException e) {
+                System.out.println("[ERROR] " + e.getMessage());
+                return;
+            } catch (NoSuchElementException e) {
+                // expired (or its first attempt failed) since the check: handle it as a new booking
+            }
+        }
+
         // Check if dates are available
         if (!prop.areDatesAvailable(checkIn, checkOut)) {
+            System.out.println("[ERROR] Selected dates are not available for booking.");
+            if (prop.allowsWhenFree(checkIn, checkOut)) {
+                offerWaitlist(prop, guestName, checkIn, checkOut);
+            }
+            return;
+        }
+
+        // Hold the nights so no one else can take them while the guest decides
+        Hold hold = holds.placeHold(prop, guestName, checkIn, checkOut);
+        if (hold == null) {
             System.out.println("[ERROR] Selected dates are not available for booking.");
             return;
         }
 
         // Create and process reservation
         Reservation reservation = new Reservation(guestName, checkIn, checkOut);
-        reservation.calculateTotal(prop.getDates());
+        reservation.calculateTotal(prop);
         
         // Display booking summary
         System.out.println("\n=== BOOKING SUMMARY ===");
@@ -316,23 +584,373 @@ public class SystemManager {
         System.out.println("Property: " + prop.getName());
         reservation.displayReservation();
         
+        System.out.println("[INFO] These nights are held for you for " + (HOLD_TTL_MILLIS / 60000) + " minutes.");
         System.out.print("\nConfirm booking? (Y/N): ");
-        String confirm = sc.nextLine().trim().toUpperCase();
+        String confirm = input.nextLine().trim().toUpperCase();
         
         if (confirm.equals("Y")) {
-            // Book the dates and add reservation
-            prop.bookDates(checkIn, checkOut);
-            prop.addReservation(reservation);
+            // Turn the hold into the reservation, once per booking reference
+            Reservation booked;
+            try {
+                booked = requestId.isEmpty() ? holds.confirm(hold)
+                        : bookings.getOrBook(requestId, prop, guestName, checkIn, checkOut, () -> holds.confirm(hold));
+            } catch (IllegalArgumentException e) {
+                holds.release(hold);
+                System.out.println("[ERROR] " + e.getMessage());
+                return;
+            }
+            holds.release(hold);   // no-op unless the same reference was confirmed elsewhere first
+            if (booked == null) {
+                System.out.println("[ERROR] Your hold expired before confirmation. Please try booking again.");
+                return;
+            }
             System.out.println("[SUCCESS] Booking confirmed successfully!");
             
             // Show updated calendar
             System.out.println("\nUpdated Calendar for " + prop.getName() + ":");
             prop.displayCalendar();
         } else {
+            holds.release(hold);
             System.out.println("[INFO] Booking cancelled.");
         }
     }
 
+    /**
+     * Books the same nights on several properties for one guest, all or nothing.
+     */
+    public void simulateGroupBooking() {
+        System.out.println("\n=== SIMULATE GROUP BOOKING ===");
+        System.out.println("-----------------------------------");
+        if (properties.size() < 2) {
+            System.out.println("[ERROR] At least 2 properties are needed for a group booking.");
+            return;
+        }
+
+        listProperties();
+        int maxCount = Math.min(properties.size(), GroupBooking.MAX_PROPERTIES);
+        System.out.print("Enter number of properties to book (2-" + maxCount + "): ");
+        int count = getValidatedInt(2, maxCount);
+        ArrayList<Property> group = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            System.out.print("Property " + (i + 1) + ": ");
+            String propName = input.nextLine().trim();
+            Property prop = findProperty(propName);
+            if (prop == null) {
+                System.out.println("[ERROR] Property '" + propName + "' not found. Please try again.");
+                i--;
+            } else if (group.contains(prop)) {
+                System.out.println("[ERROR] '" + prop.getName() + "' is already in this group. Please choose another.");
+                i--;
+            } else {
+                group.add(prop);
+            }
+        }
+
+        System.out.print("\nEnter guest name: ");
+        String guestName = input.nextLine().trim();
+        if (guestName.isEmpty()) {
+            System.out.println("[ERROR] Guest name cannot be blank.");
+            return;
+        }
+        System.out.print("Enter check-in day (1-29): ");
+        int checkIn = getValidatedInt(1, 29);
+        System.out.print("Enter check-out day (" + (checkIn + 1) + "-30): ");
+        int checkOut = getValidatedInt(checkIn + 1, 30);
+
+        ArrayList<Reservation> booked = GroupBooking.book(shards, group, guestName, checkIn, checkOut);
+        if (booked == null) {
+            System.out.println("[ERROR] Not every property is available for these nights. Nothing was booked.");
+            for (Property prop : group) {
+                if (!prop.canBook(checkIn, checkOut)) {
+                    System.out.println("   Unavailable: " + prop.getName());
+                }
+            }
+            return;
+        }
+
+        long total = 0;
+        System.out.println("\n=== GROUP BOOKING SUMMARY ===");
+        System.out.println("-----------------------------------");
+        for (int i = 0; i < group.size(); i++) {
+            System.out.println("Property: " + group.get(i).getName());
+            booked.get(i).displayReservation();
+            total += booked.get(i).getTotalPrice();
+        }
+        System.out.println("Group Total: PHP " + Money.format(total));
+        System.out.println("[SUCCESS] Group booking confirmed for all " + group.size() + " properties!");
+    }
+
+    // -------------------------------------------------------
+    // SEARCH CHEAPEST STAYS
+    // -------------------------------------------------------
+
+    /**
+     * Lists the cheapest properties available for a stay.
+     */
+    public void searchCheapestStays() {
+        System.out.println("\n=== SEARCH CHEAPEST STAYS ===");
+        System.out.println("-----------------------------------");
+        if (properties.isEmpty()) {
+            System.out.println("[ERROR] No properties available to search.");
+            return;
+        }
+
+        System.out.print("Enter check-in day (1-29): ");
+        int checkIn = getValidatedInt(1, 29);
+        System.out.print("Enter check-out day (" + (checkIn + 1) + "-30): ");
+        int checkOut = getValidatedInt(checkIn + 1, 30);
+        System.out.print("How many results to show (1-50): ");
+        int k = getValidatedInt(1, 50);
+
+        ArrayList<CheapestStaySearch.Result> results = CheapestStaySearch.search(properties.toList(), checkIn, checkOut, k);
+        if (results.isEmpty()) {
+            System.out.println("[INFO] No property is available from Day " + checkIn + " to " + checkOut + ".");
+            return;
+        }
+        System.out.println("\nCHEAPEST STAYS (Day " + checkIn + " to " + checkOut + "):");
+        for (int i = 0; i < results.size(); i++) {
+            CheapestStaySearch.Result r = results.get(i);
+            System.out.printf("   %2d. %-25s PHP %12s%n", i + 1, r.getProperty().getName(), Money.format(r.getTotalPrice()));
+        }
+    }
+
+    /**
+     * Offers to put an unavailable stay on the property's waitlist.
+     */
+    private void offerWaitlist(Property prop, String guestName, int checkIn, int checkOut) {
+        System.out.print("Join the waitlist for these nights? (Y/N): ");
+        String answer = input.nextLine().trim().toUpperCase();
+        if (answer.equals("Y")) {
+            shards.run(prop, p -> p.joinWaitlist(guestName, checkIn, checkOut));
+            System.out.println("[SUCCESS] '" + guestName + "' will be booked automatically once the nights are free.");
+        }
+    }
+
+    // -------------------------------------------------------
+    // IMPORT PROPERTIES
+    // -------------------------------------------------------
+
+    /**
+     * Imports property listings and their dates from a file.
+     * See PropertyImporter for the expected line format.
+     */
+    public void importProperties() {
+        System.out.println("\n=== IMPORT PROPERTIES ===");
+        System.out.println("-----------------------------------");
+        System.out.println("Line format: name,basePrice,day[,day...]  (blank price = PHP 1500.00, ranges like 1-5 allowed)");
+        System.out.print("Enter file path: ");
+        String path = input.nextLine().trim();
+        if (path.isEmpty()) {
+            System.out.println("[ERROR] File path cannot be blank.");
+            return;
+        }
+
+        PropertyImporter importer = new PropertyImporter(this);
+        try (Reader in = new FileReader(path)) {
+            importer.importFrom(in);
+        } catch (IOException e) {
+            System.out.println("[ERROR] Could not read '" + path + "': " + e.getMessage());
+        }
+        System.out.println("[SUCCESS] Imported " + importer.getImportedCount() + " properties ("
+                + importer.getRejectedCount() + " lines rejected).");
+    }
+
+    // -------------------------------------------------------
+    // EXPORT DATA
+    // -------------------------------------------------------
+
+    /**
+     * Exports all reservations and property calendars to a CSV or JSON lines file.
+     */
+    public void exportData() {
+        System.out.println("\n=== EXPORT DATA ===");
+        System.out.println("-----------------------------------");
+        System.out.println("1. CSV");
+        System.out.println("2. JSON lines");
+        System.out.print("Enter format: ");
+        boolean json = getValidatedInt(1, 2) == 2;
+        System.out.print("Enter output file path: ");
+        String path = input.nextLine().trim();
+        if (path.isEmpty()) {
+            System.out.println("[ERROR] File path cannot be blank.");
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 64 * 1024)) {
+            ArrayList<Property> portfolio = properties.toList();
+            DataExporter exporter = new DataExporter(out, json);
+            exporter.exportAll(portfolio);
+            System.out.println("[SUCCESS] Exported " + exporter.getRecordCount() + " records to '" + path + "'.");
+            System.out.println("[INFO] Total earnings of " + portfolio.size() + " properties: PHP "
+                    + Money.format(calculateTotalEarnings(portfolio)));
+        } catch (IOException e) {
+            System.out.println("[ERROR] Could not write '" + path + "': " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------
+    // CONSISTENCY CHECK
+    // -------------------------------------------------------
+
+    /**
+     * Checks that calendars and reservations agree for every property
+     * changed since the last check, and prints any problems found.
+     */
+    public void checkConsistency() {
+        System.out.println("\n=== DATA CONSISTENCY CHECK ===");
+        System.out.println("-----------------------------------");
+        ArrayList<String> problems = checker.check(properties.toList());
+        System.out.println("Properties checked: " + checker.getLastCheckedCount() + " of " + properties.size()
+                + " (unchanged ones were skipped)");
+        if (problems.isEmpty()) {
+            System.out.println("[SUCCESS] All calendars match their reservations.");
+        } else {
+            System.out.println("[ERROR] Found " + problems.size() + " problem(s):");
+            for (String problem : problems) {
+                System.out.println("   - " + problem);
+            }
+        }
+        System.out.println("-----------------------------------");
+    }
+
+    // -------------------------------------------------------
+    // REPLICATION
+    // -------------------------------------------------------
+
+    /**
+     * Starts shipping every change to a replication log that a standby can follow.
+     * The log starts with the current state of every property.
+     * @param path log file path (an old file is replaced)
+     * @throws IOException if the log cannot be created
+     */
+    public void startReplication(String path) throws IOException {
+        stopReplication();
+        replication = new ReplicationLog(path);
+        for (Property prop : properties.toList()) {
+            prop.attachLog(replication);
+        }
+        replication.flush();
+    }
+
+    /**
+     * Flushes and closes the replication log, if one was started.
+     */
+    public void stopReplication() {
+        if (replication != null) {
+            replication.close();
+            replication = null;
+        }
+    }
+
+    /**
+     * Gets the list of properties. The list is a copy; use addProperty and
+     * removeProperty to change the portfolio.
+     * @return list of Property objects
+     */
+    public ArrayList<Property> getProperties() {
+        return properties.toList();
+    }
+
+    /**
+     * Gets the shards that own the properties. Every change to a property
+     * must run on its shard (see ShardedBookingService).
+     * @return the booking shards
+     */
+    public ShardedBookingService getShards() {
+        return shards;
+    }
+
+    /**
+     * Adds an already validated property to the system.
+     * @param property the property to add
+     * @return true if added, false if the name is already taken
+     */
+    public boolean addProperty(Property property) {
+        String key = nameKey(property.getName());
+        if (propertiesByName.containsKey(key)) {
+            return false;
+        }
+        shards.register(property);
+        properties.add(property);
+        propertiesByName.put(key, property);
+        pager.register(property);
+        if (replication != null) {
+            property.attachLog(replication);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a property from the system.
+     * @param property the property to remove
+     */
+    public void removeProperty(Property property) {
+        properties.remove(property);
+        propertiesByName.remove(nameKey(property.getName()));
+        shards.run(property, Property::detachLog);
+        pager.unregister(property);
+        quotes.invalidate(property);
+    }
+
+    /**
+     * Adds a batch of properties with unique names (used by bulk import).
+     * Properties whose name is already taken are skipped.
+     * @param batch the properties to add
+     * @return number of properties added
+     */
+    public int addProperties(List<Property> batch) {
+        properties.ensureCapacity(properties.size() + batch.size());
+        int added = 0;
+        for (Property p : batch) {
+            if (addProperty(p)) {
+                added++;
+            }
+        }
+        pager.evictOverBudget();
+        return added;
+    }
+
+    /**
+     * Renames a property without printing anything, keeping the name index up to date.
+     * The property moves to the shard of its new name.
+     * @param property the property to rename
+     * @param newName new property name
+     * @return true if renamed, false if the name is blank or used by another property
+     */
+    public boolean renameProperty(Property property, String newName) {
+        Property other = findProperty(newName);
+        if (other != null && other != property) {
+            return false;
+        }
+        String oldKey = nameKey(property.getName());
+        if (!shards.rename(property, newName)) {
+            return false;
+        }
+        propertiesByName.remove(oldKey);
+        propertiesByName.put(nameKey(property.getName()), property);
+        return true;
+    }
+
+    /**
+     * Checks if a property name is already used (case-insensitive).
+     * @param name property name
+     * @return true if a property with this name exists
+     */
+    public boolean hasProperty(String name) {
+        return propertiesByName.containsKey(nameKey(name));
+    }
+
+    /**
+     * Gets the key used for case-insensitive name lookups.
+     * @param name property name
+     * @return lookup key
+     */
+    public static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
     // -------------------------------------------------------
     // UTILITY METHODS
     // -------------------------------------------------------
@@ -345,8 +963,12 @@ public class SystemManager {
         if (properties.isEmpty()) {
             System.out.println("   No properties available.");
         } else {
-            for (int i = 0; i < properties.size(); i++) {
-                System.out.println("   " + (i + 1) + ". " + properties.get(i).getName());
+            int number = 0;
+            for (int handle = 0; handle < properties.getSlotCount(); handle++) {
+                Property prop = properties.get(handle);
+                if (prop != null) {
+                    System.out.println("   " + (++number) + ". " + prop.getName());
+                }
             }
         }
     }
@@ -356,13 +978,8 @@ public class SystemManager {
      * @param name property name
      * @return Property object or null if not found
      */
-    private Property findProperty(String name) {
-        for (Property p : properties) {
-            if (p.getName().equalsIgnoreCase(name)) {
-                return p;
-            }
-        }
-        return null;
+    public Property findProperty(String name) {
+        return propertiesByName.get(nameKey(name));
     }
 
     /**
@@ -370,34 +987,41 @@ public class SystemManager {
      */
     private int getValidatedInt(int min, int max) {
         while (true) {
-            try {
-                int num = Integer.parseInt(sc.nextLine().trim());
-                if (num < min || num > max) {
-                    System.out.print("[ERROR] Enter a number between " + min + " and " + max + ": ");
-                    continue;
-                }
-                return num;
-            } catch (NumberFormatException e) {
+            long num = input.nextInt();
+            if (num == ConsoleInput.NOT_A_NUMBER) {
                 System.out.print("[ERROR] Invalid input. Enter a number: ");
+            } else if (num < min || num > max) {
+                System.out.print("[ERROR] Enter a number between " + min + " and " + max + ": ");
+            } else {
+                return (int) num;
             }
         }
     }
 
     /**
-     * Validates double input within a range.
+     * Validates price input within a range (in centavos).
      */
-    private double getValidatedDouble(double min, double max) {
+    private long getValidatedPrice(long min, long max) {
         while (true) {
-            try {
-                double num = Double.parseDouble(sc.nextLine().trim());
-                if (num < min || num > max) {
-                    System.out.print("[ERROR] Enter a valid price (PHP " + min + " - " + max + "): ");
-                    continue;
-                }
-                return num;
-            } catch (NumberFormatException e) {
-                System.out.print("[ERROR] Invalid input. Enter a number: ");
+            long price = Money.parse(input.nextLine());
+            if (price < 0) {
+                System.out.print("[ERROR] Invalid input. Enter a price (e.g. 1500.00): ");
+            } else if (price < min || price > max) {
+                System.out.print("[ERROR] Enter a valid price (PHP " + Money.format(min) + " - " + Money.format(max) + "): ");
+            } else {
+                return price;
             }
         }
     }
+
+    /**
+     * Adds up the earnings of the given properties. Each property's earnings are
+     * read under its lock, and the amounts are whole centavos, so the parallel sum
+     * is exact and the same however the work is split.
+     * @param portfolio properties to add up (e.g. the list that was just exported)
+     * @return total earnings in centavos
+     */
+    public long calculateTotalEarnings(List<Property> portfolio) {
+        return portfolio.parallelStream().mapToLong(Property::calculateEarnings).sum();
+    }
 }
\ No newline at end of file
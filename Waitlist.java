@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+
+/**
+ * Waitlist.java
+ *
+ * Keeps the stays that guests wanted but could not book for one property.
+ * Requests are indexed by night, so when some nights are freed up only the requests
+ * touching those nights are checked again, oldest first, and each one that now fits
+ * is booked automatically.
+ *
+ * MCO1 - Green Property Exchange
+ * @author Group 23 - John Ethan Chiuten ,Julian Nicos Reyes
+ * @version 1.0
+ */
+public class Waitlist {
+    private ArrayList<ArrayList<Entry>> byNight;   // index 1-30, created on first request
+    private long nextSequence;
+    private int visitStamp;
+    private int size;
+
+    /**
+     * Initializes an empty waitlist. The night index is only built once
+     * a request is added, so properties without a waitlist stay small.
+     */
+    public Waitlist() {
+        byNight = null;
+    }
+
+    /**
+     * Gets the number of requests still waiting.
+     * @return waiting request count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a request for nights checkIn up to (not including) checkOut.
+     * @param guestName name of the guest
+     * @param checkIn check-in day
+     * @param checkOut check-out day
+     */
+    public void add(String guestName, int checkIn, int checkOut) {
+        if (byNight == null) {
+            byNight = new ArrayList<>(31);
+            for (int day = 0; day <= 30; day++) {
+                byNight.add(new ArrayList<>());
+            }
+        }
+        Entry entry = new Entry(guestName, checkIn, checkOut, nextSequence++);
+        for (int day = checkIn; day < checkOut; day++) {
+            byNight.get(day).add(entry);
+        }
+        size++;
+    }
+
+    /**
+     * Re-checks the requests that need any of the released nights and books
+     * every one that now fits, oldest request first.
+     * @param property the property owning this waitlist
+     * @param from first released night
+     * @param to night after the last released night
+     * @return reservations made automatically (empty if none)
+     */
+    public ArrayList<Reservation> nightsReleased(Property property, int from, int to) {
+        ArrayList<Reservation> booked = new ArrayList<>();
+        if (size == 0) {
+            return booked;
+        }
+
+        // collect each affected request once
+        ArrayList<Entry> candidates = new ArrayList<>();
+        visitStamp++;
+        for (int day = Math.max(1, from); day < to && day <= 30; day++) {
+            ArrayList<Entry> waiting = byNight.get(day);
+            for (int i = waiting.size() - 1; i >= 0; i--) {
+                Entry entry = waiting.get(i);
+                if (!entry.active) {
+                    waiting.remove(i); // drop requests fulfilled earlier
+                } else if (entry.stamp != visitStamp) {
+                    entry.stamp = visitStamp;
+                    candidates.add(entry);
+                }
+            }
+        }
+        candidates.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+
+        for (Entry entry : candidates) {
+            Reservation reservation = property.tryBook(entry.guestName, entry.checkIn, entry.checkOut);
+            if (reservation != null) {
+                entry.active = false;
+                size--;
+                booked.add(reservation);
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * A waiting stay request.
+     */
+    private static class Entry {
+        private String guestName;
+        private int checkIn;
+        private int checkOut;
+        private long sequence;
+        private int stamp;
+        private boolean active;
+
+        Entry(String guestName, int checkIn, int checkOut, long sequence) {
+            this.guestName = guestName;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.sequence = sequence;
+            this.active = true;
+        }
+    }
+}